@@ -0,0 +1,214 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Closed-loop load generator for the task endpoints. Run with the JDK source launcher:
+//   java load-test/LoadGenerator.java [baseUrl] [concurrency] [warmupSeconds] [durationSeconds] [seed]
+// Every virtual user replays the same weighted endpoint mix from a fixed seed, so two runs
+// against different configurations issue the same request sequence.
+public class LoadGenerator {
+
+    private static final String[] STATUSES = {"PENDING", "IN_PROGRESS", "COMPLETED", "CANCELLED"};
+    private static final String[] WORDS = {"write", "review", "deploy", "fix", "test", "plan"};
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final int SEED_TASKS = 2_000;
+
+    enum Endpoint {
+        GET_BY_ID(40), GET_BY_STATUS(20), SEARCH(10), CREATE(15), UPDATE(10), DELETE(3), GET_ALL(2);
+
+        final int weight;
+
+        Endpoint(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private final String baseUrl;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final AtomicLongArray knownIds = new AtomicLongArray(1 << 16);
+    private final AtomicLong knownCount = new AtomicLong();
+
+    LoadGenerator(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int warmup = args.length > 2 ? Integer.parseInt(args[2]) : 15;
+        int duration = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42L;
+
+        LoadGenerator generator = new LoadGenerator(baseUrl);
+        generator.seed(new SplittableRandom(seed));
+        generator.run(concurrency, warmup, new SplittableRandom(seed + 1), false);
+        Map<Endpoint, Result> results = generator.run(concurrency, duration, new SplittableRandom(seed + 2), true);
+        report(results, duration);
+    }
+
+    private void seed(SplittableRandom random) throws Exception {
+        for (int i = 0; i < SEED_TASKS; i++) {
+            remember(send(Endpoint.CREATE, random).body());
+        }
+    }
+
+    private Map<Endpoint, Result> run(int concurrency, int seconds, SplittableRandom random, boolean record)
+            throws InterruptedException {
+        Map<Endpoint, Result> results = new TreeMap<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            results.put(endpoint, new Result());
+        }
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < concurrency; user++) {
+                SplittableRandom userRandom = random.split();
+                users.submit(() -> {
+                    try {
+                        while (System.nanoTime() < deadline) {
+                            Endpoint endpoint = pick(userRandom);
+                            long start = System.nanoTime();
+                            boolean ok;
+                            try {
+                                HttpResponse<String> response = send(endpoint, userRandom);
+                                ok = response.statusCode() < 500;
+                                if (endpoint == Endpoint.CREATE) {
+                                    remember(response.body());
+                                }
+                            } catch (Exception e) {
+                                ok = false;
+                            }
+                            if (record) {
+                                results.get(endpoint).add(System.nanoTime() - start, ok);
+                            }
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        }
+        return results;
+    }
+
+    private HttpResponse<String> send(Endpoint endpoint, SplittableRandom random) throws Exception {
+        HttpRequest.Builder request = switch (endpoint) {
+            case GET_BY_ID -> HttpRequest.newBuilder(uri("/api/tasks/" + randomId(random)));
+            case GET_BY_STATUS -> HttpRequest.newBuilder(uri("/api/tasks/status/" + pick(STATUSES, random)));
+            case SEARCH -> HttpRequest.newBuilder(uri("/api/tasks/search?title=" + pick(WORDS, random)));
+            case GET_ALL -> HttpRequest.newBuilder(uri("/api/tasks"));
+            case CREATE -> json(HttpRequest.newBuilder(uri("/api/tasks")), "POST",
+                    "{\"title\":\"" + pick(WORDS, random) + " task " + random.nextInt(1_000_000)
+                            + "\",\"description\":\"load test\",\"status\":\"" + pick(STATUSES, random) + "\"}");
+            case UPDATE -> json(HttpRequest.newBuilder(uri("/api/tasks/" + randomId(random))), "PUT",
+                    "{\"status\":\"" + pick(STATUSES, random) + "\"}");
+            case DELETE -> HttpRequest.newBuilder(uri("/api/tasks/" + randomId(random))).DELETE();
+        };
+        return client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpRequest.Builder json(HttpRequest.Builder builder, String method, String body) {
+        return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private void remember(String body) {
+        Matcher matcher = ID.matcher(body);
+        if (matcher.find()) {
+            long slot = knownCount.getAndIncrement();
+            knownIds.set((int) (slot % knownIds.length()), Long.parseLong(matcher.group(1)));
+        }
+    }
+
+    private long randomId(SplittableRandom random) {
+        long known = Math.min(knownCount.get(), knownIds.length());
+        return known == 0 ? 1 : knownIds.get(random.nextInt((int) known));
+    }
+
+    private static Endpoint pick(SplittableRandom random) {
+        int total = Arrays.stream(Endpoint.values()).mapToInt(e -> e.weight).sum();
+        int roll = random.nextInt(total);
+        for (Endpoint endpoint : Endpoint.values()) {
+            roll -= endpoint.weight;
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static void report(Map<Endpoint, Result> results, int seconds) {
+        System.out.printf("%-14s %10s %10s %10s %10s %10s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        List<Long> all = new ArrayList<>();
+        long errors = 0;
+        for (Map.Entry<Endpoint, Result> entry : results.entrySet()) {
+            long[] latencies = entry.getValue().sorted();
+            errors += entry.getValue().errors.get();
+            for (long latency : latencies) {
+                all.add(latency);
+            }
+            print(entry.getKey().name(), latencies, entry.getValue().errors.get(), seconds);
+        }
+        print("TOTAL", all.stream().mapToLong(Long::longValue).sorted().toArray(), errors, seconds);
+    }
+
+    private static void print(String name, long[] sorted, long errors, int seconds) {
+        System.out.printf("%-14s %10d %10.1f %10.2f %10.2f %10.2f %8d%n", name, sorted.length,
+                sorted.length / (double) seconds, millis(sorted, 0.50), millis(sorted, 0.99),
+                millis(sorted, 1.0), errors);
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static final class Result {
+
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicLong errors = new AtomicLong();
+
+        void add(long nanos, boolean ok) {
+            latencies.add(nanos);
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+        }
+
+        long[] sorted() {
+            return latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+    }
+}
@@ -0,0 +1,311 @@
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+// Replays requests recorded with tasks.capture.enabled=true against a running instance. Run with the
+// JDK source launcher:
+//   java load-test/ReplayWorkload.java <captureDirOrFile> [baseUrl] [speed] [concurrency]
+// speed 1 keeps the recorded pacing, N replays N times faster and 0 sends as fast as concurrency allows.
+// Ids created during the capture are mapped to the ids the target hands out for the same creates;
+// other ids are sent as recorded, so seed the target from an export of the captured instance.
+// Requests are sent as the tenant they were captured for, in the default X-Tenant-ID header.
+// Server-sent event subscriptions are skipped: they are recorded when the stream closes, and replaying
+// one would hold a sender for the whole subscription.
+public class ReplayWorkload {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+    private static final Pattern IDS_PARAM = Pattern.compile("(^|&)ids=([^&]*)");
+    private static final String TENANT_HEADER = "X-Tenant-ID";
+    private static final Pattern STREAMING = Pattern.compile("/api/tasks/overdue/stream(\\?.*)?");
+
+    record Captured(long startedAt, String method, String uri, int status, String contentType,
+                    String idempotencyKey, Long createdId, byte[] body, String tenant) {
+    }
+
+    private final String baseUrl;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final Map<Long, Long> createdIds = new ConcurrentHashMap<>();
+    private final Map<String, Result> results = new ConcurrentHashMap<>();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+
+    ReplayWorkload(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: java load-test/ReplayWorkload.java <captureDirOrFile> [baseUrl] [speed] [concurrency]");
+            System.exit(2);
+        }
+        Path source = Path.of(args[0]);
+        String baseUrl = args.length > 1 ? args[1] : "http://localhost:8080";
+        double speed = args.length > 2 ? Double.parseDouble(args[2]) : 1.0;
+        int concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+
+        List<Captured> loaded = load(source);
+        List<Captured> requests = loaded.stream()
+                .filter(captured -> !STREAMING.matcher(captured.uri()).matches())
+                .toList();
+        if (requests.size() < loaded.size()) {
+            System.out.printf("Skipping %d event stream subscriptions%n", loaded.size() - requests.size());
+        }
+        if (requests.isEmpty()) {
+            System.err.println("No captured requests in " + source);
+            System.exit(1);
+        }
+        double capturedSeconds = (requests.get(requests.size() - 1).startedAt() - requests.get(0).startedAt()) / 1000.0;
+        System.out.printf("Replaying %d requests spanning %.1f s at %sx with concurrency %d against %s%n",
+                requests.size(), capturedSeconds, speed == 0 ? "max" : speed, concurrency, baseUrl);
+
+        ReplayWorkload replay = new ReplayWorkload(baseUrl);
+        long started = System.nanoTime();
+        replay.run(requests, speed, concurrency);
+        double seconds = (System.nanoTime() - started) / 1e9;
+        replay.report(seconds, capturedSeconds);
+    }
+
+    // Segments still being written have no gzip trailer yet; everything flushed before that is read
+    private static List<Captured> load(Path source) throws IOException {
+        List<Path> files;
+        if (Files.isDirectory(source)) {
+            try (Stream<Path> listing = Files.list(source)) {
+                files = listing.filter(path -> path.getFileName().toString().startsWith("capture-"))
+                        .filter(path -> path.getFileName().toString().endsWith(".tsv.gz"))
+                        .sorted()
+                        .toList();
+            }
+        } else {
+            files = List.of(source);
+        }
+        List<Captured> requests = new ArrayList<>();
+        for (Path file : files) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(file), 64 * 1024), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    requests.add(parse(line));
+                }
+            } catch (EOFException e) {
+                // Open segment, keep what was read
+            }
+        }
+        // Lines are written as requests complete, replay them in the order they started
+        requests.sort(Comparator.comparingLong(Captured::startedAt));
+        return requests;
+    }
+
+    private static Captured parse(String line) {
+        String[] fields = line.split("\t", -1);
+        return new Captured(
+                Long.parseLong(fields[0]),
+                fields[1],
+                fields[2],
+                Integer.parseInt(fields[3]),
+                fields[5].isEmpty() ? null : fields[5],
+                fields[6].isEmpty() ? null : fields[6],
+                fields[7].isEmpty() ? null : Long.parseLong(fields[7]),
+                fields[8].isEmpty() ? null : Base64.getDecoder().decode(fields[8]),
+                // Captures from before tenancy have no tenant field
+                fields.length > 9 && !fields[9].isEmpty() ? fields[9] : null);
+    }
+
+    private void run(List<Captured> requests, double speed, int concurrency) throws InterruptedException {
+        Semaphore permits = new Semaphore(concurrency);
+        long firstAt = requests.get(0).startedAt();
+        long start = System.nanoTime();
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Captured captured : requests) {
+                long due = speed == 0 ? System.nanoTime()
+                        : start + (long) ((captured.startedAt() - firstAt) * 1_000_000 / speed);
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                permits.acquire();
+                long lag = System.nanoTime() - due;
+                maxLagNanos.accumulateAndGet(lag, Math::max);
+                senders.submit(() -> {
+                    try {
+                        send(captured);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private void send(Captured captured) {
+        Result result = results.computeIfAbsent(group(captured), key -> new Result());
+        long start = System.nanoTime();
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + rewrite(captured.uri())))
+                    .timeout(Duration.ofSeconds(30))
+                    .method(captured.method(), captured.body() != null
+                            ? HttpRequest.BodyPublishers.ofByteArray(captured.body())
+                            : HttpRequest.BodyPublishers.noBody());
+            if (captured.contentType() != null) {
+                request.header("Content-Type", captured.contentType());
+            }
+            if (captured.idempotencyKey() != null) {
+                request.header("Idempotency-Key", captured.idempotencyKey());
+            }
+            if (captured.tenant() != null) {
+                request.header(TENANT_HEADER, captured.tenant());
+            }
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            result.add(System.nanoTime() - start, response.statusCode(), captured.status());
+            if (captured.createdId() != null && response.statusCode() == 201) {
+                Matcher matcher = ID.matcher(response.body());
+                if (matcher.find()) {
+                    createdIds.put(captured.createdId(), Long.parseLong(matcher.group(1)));
+                }
+            }
+        } catch (Exception e) {
+            result.add(System.nanoTime() - start, -1, captured.status());
+        }
+    }
+
+    // Maps ids in path segments and in the ids= parameter
+    private String rewrite(String uri) {
+        int query = uri.indexOf('?');
+        String path = query < 0 ? uri : uri.substring(0, query);
+        StringBuilder rewritten = new StringBuilder();
+        for (String segment : path.split("/", -1)) {
+            if (!rewritten.isEmpty() || !segment.isEmpty()) {
+                rewritten.append('/');
+            }
+            rewritten.append(NUMBER.matcher(segment).matches() ? mapId(segment) : segment);
+        }
+        if (query < 0) {
+            return rewritten.toString();
+        }
+        Matcher ids = IDS_PARAM.matcher(uri.substring(query + 1));
+        StringBuilder parameters = new StringBuilder();
+        while (ids.find()) {
+            StringBuilder mapped = new StringBuilder();
+            for (String id : ids.group(2).split("%2C|%2c|,")) {
+                if (!mapped.isEmpty()) {
+                    mapped.append(',');
+                }
+                mapped.append(NUMBER.matcher(id).matches() ? mapId(id) : id);
+            }
+            ids.appendReplacement(parameters, Matcher.quoteReplacement(ids.group(1) + "ids=" + mapped));
+        }
+        ids.appendTail(parameters);
+        return rewritten + "?" + parameters;
+    }
+
+    private String mapId(String id) {
+        Long mapped = createdIds.get(Long.parseLong(id));
+        return mapped != null ? mapped.toString() : id;
+    }
+
+    // Endpoint as a route: ids become {id} and only parameter names are kept
+    private static String group(Captured captured) {
+        String uri = captured.uri();
+        int query = uri.indexOf('?');
+        String path = NUMBER.matcher(query < 0 ? uri : uri.substring(0, query)).replaceAll("{id}");
+        if (query < 0) {
+            return captured.method() + " " + path;
+        }
+        List<String> names = new ArrayList<>();
+        for (String parameter : uri.substring(query + 1).split("&")) {
+            int equals = parameter.indexOf('=');
+            names.add(equals < 0 ? parameter : parameter.substring(0, equals));
+        }
+        return captured.method() + " " + path + "?" + String.join("&", names.stream().sorted().distinct().toList());
+    }
+
+    private void report(double seconds, double capturedSeconds) {
+        System.out.printf("Replay took %.1f s (captured %.1f s), max dispatch lag %.1f ms%n%n",
+                seconds, capturedSeconds, maxLagNanos.get() / 1e6);
+        System.out.printf("%-44s %9s %9s %9s %9s %9s %9s %8s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors", "changed");
+        Result total = new Result();
+        for (Map.Entry<String, Result> entry : new TreeMap<>(results).entrySet()) {
+            print(entry.getKey(), entry.getValue(), seconds);
+            total.merge(entry.getValue());
+        }
+        print("TOTAL", total, seconds);
+        System.out.println();
+        System.out.println("errors: connection failures and 5xx; changed: status differs from the captured one");
+    }
+
+    private static void print(String name, Result result, double seconds) {
+        long[] sorted = result.sorted();
+        System.out.printf("%-44s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %7.2f%% %7.2f%%%n", name, sorted.length,
+                sorted.length / seconds, millis(sorted, 0.50), millis(sorted, 0.90), millis(sorted, 0.99),
+                millis(sorted, 1.0), percent(result.errors.get(), sorted.length),
+                percent(result.changed.get(), sorted.length));
+    }
+
+    private static double percent(long count, long total) {
+        return total == 0 ? 0 : 100.0 * count / total;
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static final class Result {
+
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong changed = new AtomicLong();
+
+        void add(long nanos, int status, int capturedStatus) {
+            latencies.add(nanos);
+            if (status < 0 || status >= 500) {
+                errors.incrementAndGet();
+            }
+            if (status != capturedStatus) {
+                changed.incrementAndGet();
+            }
+        }
+
+        void merge(Result other) {
+            latencies.addAll(other.latencies);
+            errors.addAndGet(other.errors.get());
+            changed.addAndGet(other.changed.get());
+        }
+
+        long[] sorted() {
+            return latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# Builds the API once and runs the same seeded workload against each Spring profile.
+# Usage: load-test/run.sh [concurrency] [warmupSeconds] [durationSeconds] [profiles...]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+CONCURRENCY=${1:-32}
+WARMUP=${2:-15}
+DURATION=${3:-30}
+shift $(( $# > 3 ? 3 : $# ))
+PROFILES=${*:-default perf}
+PORT=${PORT:-18080}
+JAVA_OPTS=${JAVA_OPTS:--Xms512m -Xmx512m}
+
+mvn -B -q package -DskipTests
+JAR=$(ls target/*.jar | grep -v original | head -1)
+
+for profile in ${PROFILES}; do
+    echo "== profile: ${profile}"
+    java ${JAVA_OPTS} -jar "${JAR}" --server.port="${PORT}" --spring.profiles.active="${profile}" \
+        > "target/load-test-${profile}.log" 2>&1 &
+    APP_PID=$!
+    trap 'kill ${APP_PID} 2>/dev/null || true' EXIT
+    until curl -sf "http://localhost:${PORT}/actuator/health" > /dev/null; do
+        sleep 1
+    done
+    java load-test/LoadGenerator.java "http://localhost:${PORT}" "${CONCURRENCY}" "${WARMUP}" "${DURATION}" \
+        | tee "target/load-test-${profile}.txt"
+    kill "${APP_PID}"
+    wait "${APP_PID}" 2>/dev/null || true
+done
@@ -0,0 +1,10 @@
+package com.example.taskmanagement.audit;
+
+public enum AuditAction {
+    CREATE,
+    UPDATE,
+    DELETE,
+    ARCHIVE,
+    RESTORE,
+    IMPORT
+}
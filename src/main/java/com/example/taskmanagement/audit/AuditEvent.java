@@ -0,0 +1,7 @@
+package com.example.taskmanagement.audit;
+
+import com.example.taskmanagement.model.TaskStatus;
+
+public record AuditEvent(long timestamp, String actor, AuditAction action, Long taskId,
+                         TaskStatus statusBefore, TaskStatus statusAfter) {
+}
@@ -0,0 +1,168 @@
+package com.example.taskmanagement.audit;
+
+import com.example.taskmanagement.config.AuditProperties;
+import com.example.taskmanagement.model.TaskStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Request threads only build an event and offer it to the ring buffer; a single background
+// writer drains it in batches into rolling gzip files.
+@Component
+public class AuditLog implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+    // Below the web server's stop phase, so the writer drains only after in-flight requests have finished
+    private static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+
+    private final AuditProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AuditRingBuffer buffer;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditLog(AuditProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.buffer = new AuditRingBuffer(properties.getBufferSize());
+        FunctionCounter.builder("tasks.audit.events", written, LongAdder::sum)
+                .tag("outcome", "written").register(meterRegistry);
+        FunctionCounter.builder("tasks.audit.events", dropped, LongAdder::sum)
+                .tag("outcome", "dropped").register(meterRegistry);
+        FunctionCounter.builder("tasks.audit.events", failed, LongAdder::sum)
+                .tag("outcome", "failed").register(meterRegistry);
+        Gauge.builder("tasks.audit.buffer.size", buffer, AuditRingBuffer::size).register(meterRegistry);
+    }
+
+    // Records the mutation once the surrounding transaction commits, so rolled back changes leave no trace
+    public void record(AuditAction action, Long taskId, TaskStatus before, TaskStatus after) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        AuditEvent event = new AuditEvent(System.currentTimeMillis(), currentActor(), action, taskId, before, after);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(event);
+                }
+            });
+        } else {
+            offer(event);
+        }
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    public long writtenCount() {
+        return written.sum();
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("audit-writer").daemon().start(this::drainLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void offer(AuditEvent event) {
+        if (!buffer.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    private void drainLoop() {
+        long idleNanos = properties.getIdleWait().toNanos();
+        try (RollingAuditFile file = new RollingAuditFile(properties.getDirectory(),
+                properties.getMaxFileSize().toBytes(), properties.getMaxFiles())) {
+            while (running || buffer.size() > 0) {
+                int batch = drainBatch(file);
+                if (batch > 0) {
+                    file.flush();
+                    written.add(batch);
+                } else {
+                    LockSupport.parkNanos(idleNanos);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Audit writer stopped, further events will be dropped", e);
+            running = false;
+        }
+    }
+
+    private int drainBatch(RollingAuditFile file) throws IOException {
+        int count = 0;
+        AuditEvent event;
+        while (count < properties.getBatchSize() && (event = buffer.poll()) != null) {
+            byte[] line;
+            try {
+                line = objectMapper.writeValueAsBytes(event);
+            } catch (JsonProcessingException e) {
+                failed.increment();
+                continue;
+            }
+            file.append(line);
+            count++;
+        }
+        return count;
+    }
+
+    private static String currentActor() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            return request.getRemoteUser() != null ? request.getRemoteUser() : request.getRemoteAddr();
+        }
+        return "system";
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.taskmanagement.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Bounded lock-free queue for many producers and a single consumer. Each slot carries a
+// sequence number: producers claim a position with one CAS and publish by advancing the
+// slot's sequence, so offer() never blocks and fails fast when the buffer is full.
+class AuditRingBuffer {
+
+    private final int mask;
+    private final AtomicReferenceArray<AuditEvent> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private volatile long tail;
+
+    AuditRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(AuditEvent event) {
+        long position = head.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long available = sequences.getAcquire(index) - position;
+            if (available == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    slots.setPlain(index, event);
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = head.get();
+            } else if (available < 0) {
+                return false;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    // Only called from the writer thread
+    AuditEvent poll() {
+        long position = tail;
+        int index = (int) (position & mask);
+        if (sequences.getAcquire(index) != position + 1) {
+            return null;
+        }
+        AuditEvent event = slots.getPlain(index);
+        slots.setPlain(index, null);
+        sequences.setRelease(index, position + mask + 1);
+        tail = position + 1;
+        return event;
+    }
+
+    int size() {
+        return (int) Math.max(0, head.get() - tail);
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.taskmanagement.capture;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// One line of a capture file, tab separated:
+//   startedAt  method  uri  status  durationMicros  contentType  idempotencyKey  createdId  body  tenant
+// startedAt is epoch millis, uri keeps the raw query string, the body is base64 and createdId is the
+// id returned by POST /api/tasks, so a replay can map it to the id its own create returns.
+// Empty fields stand for absent values. load-test/ReplayWorkload.java reads this format, including
+// files written before the tenant field was added.
+public record CapturedRequest(long startedAt, String method, String uri, int status, long durationMicros,
+                              String contentType, String idempotencyKey, Long createdId, byte[] body,
+                              String tenant) {
+
+    byte[] toLine() {
+        StringBuilder line = new StringBuilder(128 + (body != null ? body.length * 4 / 3 : 0));
+        line.append(startedAt).append('\t')
+                .append(method).append('\t')
+                .append(clean(uri)).append('\t')
+                .append(status).append('\t')
+                .append(durationMicros).append('\t')
+                .append(clean(contentType)).append('\t')
+                .append(clean(idempotencyKey)).append('\t')
+                .append(createdId != null ? createdId.toString() : "").append('\t');
+        if (body != null && body.length > 0) {
+            line.append(Base64.getEncoder().encodeToString(body));
+        }
+        line.append('\t').append(clean(tenant));
+        return line.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String clean(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+}
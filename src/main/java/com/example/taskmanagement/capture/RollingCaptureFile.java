@@ -0,0 +1,83 @@
+package com.example.taskmanagement.capture;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+// Gzip segments named capture-<timestamp>-<n>.tsv.gz, rolled by uncompressed size. The oldest are
+// deleted beyond maxSegments, so a capture left on cannot fill the disk.
+class RollingCaptureFile implements AutoCloseable {
+
+    private static final DateTimeFormatter SEGMENT_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    static final String PREFIX = "capture-";
+    static final String SUFFIX = ".tsv.gz";
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final int maxSegments;
+
+    private OutputStream out;
+    private long segmentBytes;
+    private int segmentCounter;
+
+    RollingCaptureFile(Path directory, long maxSegmentBytes, int maxSegments) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.maxSegments = maxSegments;
+    }
+
+    void append(byte[] line) throws IOException {
+        if (out == null || segmentBytes >= maxSegmentBytes) {
+            roll();
+        }
+        out.write(line);
+        out.write('\n');
+        segmentBytes += line.length + 1;
+    }
+
+    void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    private void roll() throws IOException {
+        close();
+        String name = PREFIX + LocalDateTime.now().format(SEGMENT_TIME) + String.format("-%06d", segmentCounter++) + SUFFIX;
+        OutputStream file = Files.newOutputStream(directory.resolve(name),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.APPEND);
+        out = new GZIPOutputStream(new BufferedOutputStream(file, 64 * 1024), 64 * 1024, true);
+        segmentBytes = 0;
+        deleteOldSegments();
+    }
+
+    private void deleteOldSegments() throws IOException {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files
+                    .filter(path -> path.getFileName().toString().startsWith(PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.taskmanagement.capture;
+
+import com.example.taskmanagement.config.WorkloadCaptureProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Request threads only offer a record to a bounded queue; a single background writer drains it
+// into rolling gzip files. A full queue drops records rather than slowing requests down.
+public class WorkloadCapture implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkloadCapture.class);
+
+    private final WorkloadCaptureProperties properties;
+    private final BlockingQueue<CapturedRequest> queue;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public WorkloadCapture(WorkloadCaptureProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getBufferSize());
+        FunctionCounter.builder("tasks.capture.requests", written, LongAdder::sum)
+                .tag("outcome", "written").register(meterRegistry);
+        FunctionCounter.builder("tasks.capture.requests", dropped, LongAdder::sum)
+                .tag("outcome", "dropped").register(meterRegistry);
+        FunctionCounter.builder("tasks.capture.requests", skipped, LongAdder::sum)
+                .tag("outcome", "skipped").register(meterRegistry);
+        Gauge.builder("tasks.capture.buffer.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    public void offer(CapturedRequest request) {
+        if (!running || !queue.offer(request)) {
+            dropped.increment();
+        }
+    }
+
+    // Requests that were sampled but could not be recorded, e.g. because the body was too large
+    public void skip() {
+        skipped.increment();
+    }
+
+    public long writtenCount() {
+        return written.sum();
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("capture-writer").daemon().start(this::drainLoop);
+        log.info("Capturing requests to {}", properties.getDirectory().toAbsolutePath());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drainLoop() {
+        List<CapturedRequest> batch = new ArrayList<>(properties.getBatchSize());
+        long idleMillis = properties.getIdleWait().toMillis();
+        try (RollingCaptureFile file = new RollingCaptureFile(properties.getDirectory(),
+                properties.getMaxFileSize().toBytes(), properties.getMaxFiles())) {
+            while (running || !queue.isEmpty()) {
+                CapturedRequest first;
+                try {
+                    first = queue.poll(idleMillis, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    // stop() interrupts the wait; whatever is still queued is written below
+                    first = queue.poll();
+                }
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                for (CapturedRequest request : batch) {
+                    file.append(request.toLine());
+                }
+                file.flush();
+                written.add(batch.size());
+                batch.clear();
+            }
+        } catch (IOException e) {
+            log.error("Capture writer stopped, further requests will be dropped", e);
+            running = false;
+        }
+    }
+}
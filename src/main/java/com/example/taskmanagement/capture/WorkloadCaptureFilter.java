@@ -0,0 +1,236 @@
+package com.example.taskmanagement.capture;
+
+import com.example.taskmanagement.config.WorkloadCaptureProperties;
+import com.example.taskmanagement.idempotency.IdempotencyFilter;
+import com.example.taskmanagement.tenant.TenantContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Records sampled requests with their timing for later replay. The body is read up front, so it is
+// captured even when the request never reaches a handler that reads it.
+public class WorkloadCaptureFilter extends OncePerRequestFilter {
+
+    private static final String TASKS_PATH = "/api/tasks";
+
+    private final WorkloadCapture capture;
+    private final ObjectMapper objectMapper;
+    private final double sampleRate;
+    private final int maxBodySize;
+    private final List<String> excludedPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public WorkloadCaptureFilter(WorkloadCapture capture, WorkloadCaptureProperties properties,
+                                 ObjectMapper objectMapper) {
+        this.capture = capture;
+        this.objectMapper = objectMapper;
+        this.sampleRate = properties.getSampleRate();
+        this.maxBodySize = Math.toIntExact(properties.getMaxBodySize().toBytes());
+        this.excludedPaths = List.copyOf(properties.getExcludedPaths());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return true;
+        }
+        String path = path(request);
+        return excludedPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long startedAt = System.currentTimeMillis();
+        long started = System.nanoTime();
+
+        byte[] body = null;
+        boolean recordable = true;
+        if (request.getContentLengthLong() > maxBodySize) {
+            recordable = false;
+        } else if (request.getContentLengthLong() != 0 && hasBody(request.getMethod())) {
+            byte[] head = request.getInputStream().readNBytes(maxBodySize + 1);
+            if (head.length > maxBodySize) {
+                recordable = false;
+            } else {
+                body = head;
+            }
+            request = new BufferedBodyRequest(request, head, body != null);
+        }
+
+        boolean create = recordable && "POST".equals(request.getMethod()) && TASKS_PATH.equals(path(request));
+        ContentCachingResponseWrapper createResponse = create ? new ContentCachingResponseWrapper(response) : null;
+        HttpServletRequest recorded = request;
+        byte[] recordedBody = body;
+        boolean record = recordable;
+        String tenant = TenantContext.current();
+        try {
+            chain.doFilter(request, create ? createResponse : response);
+        } finally {
+            // Async and streaming responses are only done once the async context completes
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) throws IOException {
+                        finish(recorded, response, createResponse, record, startedAt, started, recordedBody, tenant);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                finish(recorded, response, createResponse, record, startedAt, started, recordedBody, tenant);
+            }
+        }
+    }
+
+    private void finish(HttpServletRequest request, HttpServletResponse response,
+                        ContentCachingResponseWrapper createResponse, boolean recordable, long startedAt,
+                        long started, byte[] body, String tenant) throws IOException {
+        long durationMicros = (System.nanoTime() - started) / 1_000;
+        if (recordable) {
+            int status = createResponse != null ? createResponse.getStatus() : response.getStatus();
+            Long createdId = createResponse != null && status == HttpStatus.CREATED.value()
+                    ? createdId(createResponse.getContentAsByteArray()) : null;
+            capture.offer(new CapturedRequest(startedAt, request.getMethod(), uri(request), status,
+                    durationMicros, request.getContentType(), request.getHeader(IdempotencyFilter.KEY_HEADER),
+                    createdId, body, tenant));
+        } else {
+            capture.skip();
+        }
+        if (createResponse != null) {
+            createResponse.copyBodyToResponse();
+        }
+    }
+
+    private Long createdId(byte[] responseBody) {
+        try {
+            JsonNode id = objectMapper.readTree(responseBody).get("id");
+            return id != null && id.canConvertToLong() ? id.asLong() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static boolean hasBody(String method) {
+        return "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method);
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static String uri(HttpServletRequest request) {
+        String query = request.getQueryString();
+        return query != null ? path(request) + "?" + query : path(request);
+    }
+
+    // Serves the bytes read up front, followed by whatever was left unread on the original stream
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] head;
+        private final boolean complete;
+        private ServletInputStream stream;
+
+        BufferedBodyRequest(HttpServletRequest request, byte[] head, boolean complete) {
+            super(request);
+            this.head = head;
+            this.complete = complete;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (stream == null) {
+                stream = stream();
+            }
+            return stream;
+        }
+
+        private ServletInputStream stream() throws IOException {
+            InputStream in = complete
+                    ? new ByteArrayInputStream(head)
+                    : new SequenceInputStream(new ByteArrayInputStream(head), super.getInputStream());
+            return new ServletInputStream() {
+                private boolean finished;
+
+                @Override
+                public int read() throws IOException {
+                    int read = in.read();
+                    finished = read < 0;
+                    return read;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int read = in.read(buffer, offset, length);
+                    finished = read < 0;
+                    return read;
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return finished;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return complete ? head.length : super.getContentLength();
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return complete ? head.length : super.getContentLengthLong();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.taskmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "tasks.archive")
+public class ArchiveProperties {
+
+    // Runs the scheduled archiver; archiving on demand works either way
+    private boolean enabled = true;
+
+    // COMPLETED and CANCELLED tasks untouched for longer than this are moved to the archive
+    private Duration minAge = Duration.ofDays(30);
+
+    // Tasks moved per transaction
+    private int batchSize = 500;
+
+    // Upper bound of batches per shard and run, the rest waits for the next run
+    private int maxBatchesPerRun = 20;
+
+    // Pause between batches so the archiver never saturates a shard
+    private Duration pause = Duration.ofMillis(200);
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getMinAge() {
+        return minAge;
+    }
+
+    public void setMinAge(Duration minAge) {
+        this.minAge = minAge;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxBatchesPerRun() {
+        return maxBatchesPerRun;
+    }
+
+    public void setMaxBatchesPerRun(int maxBatchesPerRun) {
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    public Duration getPause() {
+        return pause;
+    }
+
+    public void setPause(Duration pause) {
+        this.pause = pause;
+    }
+}
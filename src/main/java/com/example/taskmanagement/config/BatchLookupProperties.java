@@ -0,0 +1,30 @@
+package com.example.taskmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "tasks.batch-lookup")
+public class BatchLookupProperties {
+
+    // Largest number of ids accepted by one multi-get request
+    private int maxIds = 5000;
+
+    // Ids per IN (...) query
+    private int chunkSize = 500;
+
+    // Getters and Setters
+    public int getMaxIds() {
+        return maxIds;
+    }
+
+    public void setMaxIds(int maxIds) {
+        this.maxIds = maxIds;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+}
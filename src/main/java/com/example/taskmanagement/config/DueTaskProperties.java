@@ -0,0 +1,43 @@
+package com.example.taskmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "tasks.due")
+public class DueTaskProperties {
+
+    // Upper bound on the results of /due and /overdue, and the default when no limit is given
+    private int maxResults = 1000;
+
+    // How long an /overdue/stream subscription stays open before the client has to reconnect
+    private Duration streamTimeout = Duration.ofMinutes(30);
+
+    // Events queued per /overdue/stream subscriber; one that falls this far behind is disconnected
+    private int streamQueueSize = 1000;
+
+    // Getters and Setters
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    public void setMaxResults(int maxResults) {
+        this.maxResults = maxResults;
+    }
+
+    public Duration getStreamTimeout() {
+        return streamTimeout;
+    }
+
+    public void setStreamTimeout(Duration streamTimeout) {
+        this.streamTimeout = streamTimeout;
+    }
+
+    public int getStreamQueueSize() {
+        return streamQueueSize;
+    }
+
+    public void setStreamQueueSize(int streamQueueSize) {
+        this.streamQueueSize = streamQueueSize;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.taskmanagement.config;
+
+import com.example.taskmanagement.diagnostics.FlightRecorderInterceptor;
+import com.example.taskmanagement.diagnostics.FlightRecorderSessionListener;
+import com.example.taskmanagement.diagnostics.FlightRecorderValidator;
+import com.example.taskmanagement.diagnostics.FlightRecordings;
+import com.example.taskmanagement.diagnostics.TaskFlightRecorderAspect;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class FlightRecorderConfig {
+
+    @Bean(destroyMethod = "closeCurrent")
+    public FlightRecordings flightRecordings(FlightRecorderProperties properties) {
+        return new FlightRecordings(properties);
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "tasks.jfr", name = "enabled", matchIfMissing = true)
+    static class Instrumentation {
+
+        @Bean
+        public TaskFlightRecorderAspect taskFlightRecorderAspect() {
+            return new TaskFlightRecorderAspect();
+        }
+
+        @Bean
+        public HibernatePropertiesCustomizer flightRecorderSessionEvents() {
+            return properties -> properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                    FlightRecorderSessionListener.class.getName());
+        }
+
+        @Bean
+        public WebMvcConfigurer flightRecorderWebMvcConfigurer(LocalValidatorFactoryBean validator) {
+            return new WebMvcConfigurer() {
+                @Override
+                public void addInterceptors(InterceptorRegistry registry) {
+                    registry.addInterceptor(new FlightRecorderInterceptor()).addPathPatterns("/api/tasks/**");
+                }
+
+                @Override
+                public Validator getValidator() {
+                    return new FlightRecorderValidator(validator);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.taskmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "tasks.jfr")
+public class FlightRecorderProperties {
+
+    // Instruments controllers, services, repositories, validation and Hibernate with JFR events
+    private boolean enabled = true;
+
+    // Exposes /api/admin/recordings; off by default since the API has no authentication
+    private boolean endpointEnabled = false;
+
+    // JDK settings file (default or profile) the task events are added to
+    private String settings = "default";
+
+    // Recordings stop on their own after this long
+    private Duration maxDuration = Duration.ofMinutes(10);
+
+    private DataSize maxSize = DataSize.ofMegabytes(256);
+
+    // Shorter service, query and JDBC events are not recorded
+    private Duration threshold = Duration.ZERO;
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEndpointEnabled() {
+        return endpointEnabled;
+    }
+
+    public void setEndpointEnabled(boolean endpointEnabled) {
+        this.endpointEnabled = endpointEnabled;
+    }
+
+    public String getSettings() {
+        return settings;
+    }
+
+    public void setSettings(String settings) {
+        this.settings = settings;
+    }
+
+    public Duration getMaxDuration() {
+        return maxDuration;
+    }
+
+    public void setMaxDuration(Duration maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Duration getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(Duration threshold) {
+        this.threshold = threshold;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.taskmanagement.config;
+
+import com.example.taskmanagement.repository.CachedTaskQueries;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration
+public class HibernateCacheConfig {
+
+    // Hibernate's default region names; the query results one backs queries without an explicit region
+    static final String DEFAULT_QUERY_RESULTS_REGION = "default-query-results-region";
+    static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(TaskCacheProperties cacheProperties,
+                                              ShardingProperties shardingProperties) {
+        // A private URI per application context, so test contexts on different databases never share regions
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        cacheManager.createCache(CachedTaskQueries.ENTITY_REGION, region(cacheProperties.getEntity()));
+        for (int shard = 0; shard < shardingProperties.getCount(); shard++) {
+            cacheManager.createCache(CachedTaskQueries.queryRegion(shard), region(cacheProperties.getQuery()));
+        }
+        cacheManager.createCache(DEFAULT_QUERY_RESULTS_REGION, region(cacheProperties.getQuery()));
+        // Query results are only valid while this region is complete, so it is never bounded or expired
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(TaskCacheProperties.Region settings) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(settings.getMaxEntries()));
+        configuration.setExpireAfterWrite(OptionalLong.of(settings.getTimeToLive().toNanos()));
+        return configuration;
+    }
+}
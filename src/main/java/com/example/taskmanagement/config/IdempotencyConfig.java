@@ -0,0 +1,33 @@
+package com.example.taskmanagement.config;
+
+import com.example.taskmanagement.idempotency.IdempotencyFilter;
+import com.example.taskmanagement.idempotency.IdempotencyStore;
+import com.example.taskmanagement.idempotency.InMemoryIdempotencyStore;
+import com.example.taskmanagement.idempotency.JdbcIdempotencyStore;
+import com.example.taskmanagement.repository.ShardDataSources;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(IdempotencyProperties properties, ShardDataSources shardDataSources) {
+        return switch (properties.getStore()) {
+            case MEMORY -> new InMemoryIdempotencyStore(properties.getMaxEntries(), properties.getTtl());
+            case JDBC -> new JdbcIdempotencyStore(shardDataSources.get(0), properties.getTtl());
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyProperties properties,
+                                                                       IdempotencyStore idempotencyStore) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+                new IdempotencyFilter(idempotencyStore, properties.getExcludedPaths(), properties.getMaxWait(),
+                        properties.getMaxResponseSize().toBytes()));
+        registration.addUrlPatterns("/api/tasks", "/api/tasks/*");
+        registration.setEnabled(properties.isEnabled());
+        return registration;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.taskmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "tasks.idempotency")
+public class IdempotencyProperties {
+
+    public enum Store {
+        MEMORY,
+        JDBC
+    }
+
+    private boolean enabled = true;
+
+    // MEMORY is bounded by max-entries; JDBC keeps keys in shard 0 so they survive restarts
+    private Store store = Store.MEMORY;
+
+    private Duration ttl = Duration.ofHours(24);
+
+    private long maxEntries = 100_000;
+
+    // How long a duplicate waits for the original request before getting 409 Conflict
+    private Duration maxWait = Duration.ofSeconds(10);
+
+    // Larger responses are sent but not stored, so a retry runs the request again. The JDBC store
+    // holds bodies of up to 1MB.
+    private DataSize maxResponseSize = DataSize.ofMegabytes(1);
+
+    // Never deduplicated: lookup is a read and import streams its progress (re-imports are idempotent by id)
+    private List<String> excludedPaths = new ArrayList<>(List.of("/api/tasks/lookup", "/api/tasks/import"));
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Store getStore() {
+        return store;
+    }
+
+    public void setStore(Store store) {
+        this.store = store;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(long maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public DataSize getMaxResponseSize() {
+        return maxResponseSize;
+    }
+
+    public void setMaxResponseSize(DataSize maxResponseSize) {
+        this.maxResponseSize = maxResponseSize;
+    }
+
+    public List<String> getExcludedPaths() {
+        return excludedPaths;
+    }
+
+    public void setExcludedPaths(List<String> excludedPaths) {
+        this.excludedPaths = excludedPaths;
+    }
+}
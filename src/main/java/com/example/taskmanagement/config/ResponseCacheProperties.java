@@ -0,0 +1,55 @@
+package com.example.taskmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "tasks.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    // Total size of the cached responses: bodies, gzipped copies, keys and a fixed overhead per entry
+    private DataSize maxSize = DataSize.ofMegabytes(32);
+
+    // Entries not read for this long are dropped; responses stored under a superseded version are
+    // never read again
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    // Responses at least this large also keep a gzipped copy for clients that accept it
+    private DataSize gzipMinSize = DataSize.ofKilobytes(2);
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public DataSize getGzipMinSize() {
+        return gzipMinSize;
+    }
+
+    public void setGzipMinSize(DataSize gzipMinSize) {
+        this.gzipMinSize = gzipMinSize;
+    }
+}
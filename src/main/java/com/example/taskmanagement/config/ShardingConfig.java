@@ -0,0 +1,83 @@
+package com.example.taskmanagement.config;
+
+import com.example.taskmanagement.repository.ShardDataSources;
+import com.example.taskmanagement.repository.ShardRoutingDataSource;
+import com.example.taskmanagement.repository.TaskShards;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.relational.SchemaManager;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class ShardingConfig {
+
+    @Bean
+    public ShardDataSources shardDataSources(DataSourceProperties dataSourceProperties,
+                                             ShardingProperties shardingProperties,
+                                             Environment environment) {
+        if (shardingProperties.getCount() < 1) {
+            throw new IllegalStateException("tasks.sharding.count must be at least 1");
+        }
+        Binder binder = Binder.get(environment);
+        List<DataSource> shards = new ArrayList<>();
+        for (int shard = 0; shard < shardingProperties.getCount(); shard++) {
+            HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(shardUrl(dataSourceProperties.determineUrl(), shardingProperties, shard))
+                    .build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+            dataSource.setPoolName("shard-" + shard);
+            shards.add(dataSource);
+        }
+        return new ShardDataSources(shards);
+    }
+
+    // Hibernate and Spring see a single DataSource; the physical shard is resolved on the first
+    // statement of each transaction, after TaskShards has bound the shard for the current thread.
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardDataSources shardDataSources) {
+        return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shardDataSources.all()));
+    }
+
+    // Hibernate only creates the schema on shard 0 at startup, so export it to the remaining shards
+    @Bean
+    public SmartInitializingSingleton shardSchemaExporter(EntityManagerFactory entityManagerFactory,
+                                                          TaskShards taskShards) {
+        return () -> {
+            SchemaManager schemaManager = entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager();
+            for (int shard = 1; shard < taskShards.count(); shard++) {
+                taskShards.onShard(shard, () -> {
+                    schemaManager.exportMappedObjects(true);
+                    return null;
+                });
+            }
+        };
+    }
+
+    static String shardUrl(String baseUrl, ShardingProperties properties, int shard) {
+        if (shard == 0) {
+            return baseUrl;
+        }
+        if (properties.getUrls().size() >= shard) {
+            return properties.getUrls().get(shard - 1);
+        }
+        int options = baseUrl.indexOf(';');
+        return options < 0
+                ? baseUrl + "_shard" + shard
+                : baseUrl.substring(0, options) + "_shard" + shard + baseUrl.substring(options);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.taskmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "tasks.sharding")
+public class ShardingProperties {
+
+    // Number of shards; shard 0 uses spring.datasource.url
+    private int count = 1;
+
+    // Explicit JDBC URLs for shards 1..count-1, derived from spring.datasource.url when empty
+    private List<String> urls = new ArrayList<>();
+
+    // Number of ids reserved from the global sequence per round trip
+    private int idBlockSize = 1000;
+
+    // Getters and Setters
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public List<String> getUrls() {
+        return urls;
+    }
+
+    public void setUrls(List<String> urls) {
+        this.urls = urls;
+    }
+
+    public int getIdBlockSize() {
+        return idBlockSize;
+    }
+
+    public void setIdBlockSize(int idBlockSize) {
+        this.idBlockSize = idBlockSize;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.taskmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "tasks.cache")
+public class TaskCacheProperties {
+
+    private final Region entity = new Region(10_000, Duration.ofMinutes(10));
+
+    private final Region query = new Region(1_000, Duration.ofMinutes(5));
+
+    // Getters
+    public Region getEntity() {
+        return entity;
+    }
+
+    public Region getQuery() {
+        return query;
+    }
+
+    public static class Region {
+
+        private long maxEntries;
+
+        private Duration timeToLive;
+
+        public Region(long maxEntries, Duration timeToLive) {
+            this.maxEntries = maxEntries;
+            this.timeToLive = timeToLive;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+}
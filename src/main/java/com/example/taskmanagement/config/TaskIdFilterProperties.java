@@ -0,0 +1,51 @@
+package com.example.taskmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "tasks.id-filter")
+public class TaskIdFilterProperties {
+
+    private boolean enabled = true;
+
+    // The filter is sized at startup for this many ids, or twice the ids already stored if that is more
+    private long expectedTasks = 1_000_000;
+
+    private double falsePositiveRate = 0.01;
+
+    // Upper bound on the filter; beyond it the false-positive rate rises instead
+    private DataSize maxMemory = DataSize.ofMegabytes(64);
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getExpectedTasks() {
+        return expectedTasks;
+    }
+
+    public void setExpectedTasks(long expectedTasks) {
+        this.expectedTasks = expectedTasks;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public void setFalsePositiveRate(double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public DataSize getMaxMemory() {
+        return maxMemory;
+    }
+
+    public void setMaxMemory(DataSize maxMemory) {
+        this.maxMemory = maxMemory;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.taskmanagement.config;
+
+import com.example.taskmanagement.tenant.TenantFilter;
+import com.example.taskmanagement.tenant.TenantQuotas;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class TenancyConfig {
+
+    // Ahead of capture and idempotency, which both record the tenant
+    @Bean
+    public FilterRegistrationBean<TenantFilter> tenantFilter(TenancyProperties properties, TenantQuotas tenantQuotas) {
+        FilterRegistrationBean<TenantFilter> registration = new FilterRegistrationBean<>(
+                new TenantFilter(properties.getHeader(), tenantQuotas));
+        registration.addUrlPatterns("/api/tasks", "/api/tasks/*", "/api/admin/tasks/*");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 2);
+        return registration;
+    }
+}
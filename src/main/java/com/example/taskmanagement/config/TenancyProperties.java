@@ -0,0 +1,113 @@
+package com.example.taskmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "tasks.tenancy")
+public class TenancyProperties {
+
+    // Requests without it act as the default tenant
+    private String header = "X-Tenant-ID";
+
+    // Requests a tenant may have in flight at once; 0 means unlimited
+    private int maxConcurrentRequests = 32;
+
+    // How long a request waits for one of its tenant's slots before it is answered with 429
+    private Duration maxWait = Duration.ofMillis(100);
+
+    // Live tasks a tenant may own; 0 means unlimited
+    private long maxTasks = 1_000_000;
+
+    // Task counts are reloaded from the database this often and tracked in memory in between
+    private Duration countRefresh = Duration.ofSeconds(30);
+
+    // Request slots and list versions of a tenant are dropped after it has been idle this long
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    // Per-tenant overrides of the limits above
+    private Map<String, Quota> quotas = new HashMap<>();
+
+    public static class Quota {
+
+        private Integer maxConcurrentRequests;
+
+        private Long maxTasks;
+
+        // Getters and Setters
+        public Integer getMaxConcurrentRequests() {
+            return maxConcurrentRequests;
+        }
+
+        public void setMaxConcurrentRequests(Integer maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+        }
+
+        public Long getMaxTasks() {
+            return maxTasks;
+        }
+
+        public void setMaxTasks(Long maxTasks) {
+            this.maxTasks = maxTasks;
+        }
+    }
+
+    // Getters and Setters
+    public String getHeader() {
+        return header;
+    }
+
+    public void setHeader(String header) {
+        this.header = header;
+    }
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public long getMaxTasks() {
+        return maxTasks;
+    }
+
+    public void setMaxTasks(long maxTasks) {
+        this.maxTasks = maxTasks;
+    }
+
+    public Duration getCountRefresh() {
+        return countRefresh;
+    }
+
+    public void setCountRefresh(Duration countRefresh) {
+        this.countRefresh = countRefresh;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public Map<String, Quota> getQuotas() {
+        return quotas;
+    }
+
+    public void setQuotas(Map<String, Quota> quotas) {
+        this.quotas = quotas;
+    }
+}
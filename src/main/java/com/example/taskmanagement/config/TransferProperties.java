@@ -0,0 +1,75 @@
+package com.example.taskmanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "tasks.transfer")
+public class TransferProperties {
+
+    // Rows per JDBC batch on import; each batch is committed on its own
+    private int batchSize = 5000;
+
+    // Rows the export cursor pulls from the database at a time
+    private int fetchSize = 1000;
+
+    // Imports write a progress line every this many rows
+    private int progressInterval = 100_000;
+
+    // Rejected rows beyond this are counted but not described in the import report
+    private int maxReportedErrors = 20;
+
+    // Longest import row read, in characters; longer rows are skipped and rejected
+    private int maxRowLength = 1024 * 1024;
+
+    // Exposes POST /api/admin/tasks/import, which keeps every imported id and moves the id sequence past
+    // them; off by default since the API has no authentication
+    private boolean restoreEndpointEnabled = false;
+
+    // Getters and Setters
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public int getProgressInterval() {
+        return progressInterval;
+    }
+
+    public void setProgressInterval(int progressInterval) {
+        this.progressInterval = progressInterval;
+    }
+
+    public int getMaxReportedErrors() {
+        return maxReportedErrors;
+    }
+
+    public void setMaxReportedErrors(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public int getMaxRowLength() {
+        return maxRowLength;
+    }
+
+    public void setMaxRowLength(int maxRowLength) {
+        this.maxRowLength = maxRowLength;
+    }
+
+    public boolean isRestoreEndpointEnabled() {
+        return restoreEndpointEnabled;
+    }
+
+    public void setRestoreEndpointEnabled(boolean restoreEndpointEnabled) {
+        this.restoreEndpointEnabled = restoreEndpointEnabled;
+    }
+}
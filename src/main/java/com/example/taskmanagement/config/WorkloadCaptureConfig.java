@@ -0,0 +1,33 @@
+package com.example.taskmanagement.config;
+
+import com.example.taskmanagement.capture.WorkloadCapture;
+import com.example.taskmanagement.capture.WorkloadCaptureFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(prefix = "tasks.capture", name = "enabled")
+public class WorkloadCaptureConfig {
+
+    @Bean
+    public WorkloadCapture workloadCapture(WorkloadCaptureProperties properties, MeterRegistry meterRegistry) {
+        return new WorkloadCapture(properties, meterRegistry);
+    }
+
+    // Wraps the idempotency filter, so replayed responses are captured and timed like any other
+    @Bean
+    public FilterRegistrationBean<WorkloadCaptureFilter> workloadCaptureFilter(WorkloadCapture workloadCapture,
+                                                                               WorkloadCaptureProperties properties,
+                                                                               ObjectMapper objectMapper) {
+        FilterRegistrationBean<WorkloadCaptureFilter> registration = new FilterRegistrationBean<>(
+                new WorkloadCaptureFilter(workloadCapture, properties, objectMapper));
+        registration.addUrlPatterns("/api/tasks", "/api/tasks/*");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        return registration;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.taskmanagement.controller;
+
+import com.example.taskmanagement.diagnostics.FlightRecordings;
+import com.example.taskmanagement.diagnostics.FlightRecordings.RecordingInfo;
+import jdk.jfr.Recording;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.ParseException;
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/admin/recordings")
+@ConditionalOnProperty(prefix = "tasks.jfr", name = "endpoint-enabled", havingValue = "true")
+public class FlightRecordingController {
+
+    private final FlightRecordings flightRecordings;
+
+    @Autowired
+    public FlightRecordingController(FlightRecordings flightRecordings) {
+        this.flightRecordings = flightRecordings;
+    }
+
+    @GetMapping
+    public ResponseEntity<RecordingInfo> getRecording() {
+        return flightRecordings.current()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/start")
+    public ResponseEntity<RecordingInfo> startRecording(@RequestParam(required = false) Duration duration)
+            throws IOException, ParseException {
+        return flightRecordings.start(duration)
+                .map(info -> ResponseEntity.status(HttpStatus.CREATED).body(info))
+                .orElse(ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<StreamingResponseBody> stopRecording() {
+        return flightRecordings.stop()
+                .map(FlightRecordingController::download)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private static ResponseEntity<StreamingResponseBody> download(Recording recording) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(recording.getName() + ".jfr").build().toString())
+                .body(out -> streamRecording(recording, out));
+    }
+
+    private static void streamRecording(Recording recording, OutputStream out) throws IOException {
+        try (recording; InputStream in = recording.getStream(null, null)) {
+            if (in != null) {
+                in.transferTo(out);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.taskmanagement.controller;
+
+import com.example.taskmanagement.config.DueTaskProperties;
+import com.example.taskmanagement.service.TaskOverdueEvent;
+import com.example.taskmanagement.tenant.TenantContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Pushes overdue transitions to /api/tasks/overdue/stream subscribers of the task's tenant as server-sent events.
+// Events are published on the shared scheduler thread, so each subscriber is written to by its own
+// virtual thread, in order, and a slow client only holds up itself. A client that falls
+// tasks.due.stream-queue-size events behind is disconnected and catches up from /overdue on reconnect.
+@Component
+public class OverdueTaskStream {
+
+    private final DueTaskProperties properties;
+    private final Map<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+    public OverdueTaskStream(DueTaskProperties properties) {
+        this.properties = properties;
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(properties.getStreamTimeout().toMillis());
+        subscribers.put(emitter, new Subscriber(TenantContext.current(), new ThreadPoolExecutor(1, 1, 0,
+                TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getStreamQueueSize()),
+                Thread.ofVirtual().name("overdue-stream-", 0).factory())));
+        emitter.onCompletion(() -> unsubscribe(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> unsubscribe(emitter));
+        return emitter;
+    }
+
+    @EventListener
+    public void onOverdue(TaskOverdueEvent event) {
+        for (Map.Entry<SseEmitter, Subscriber> entry : subscribers.entrySet()) {
+            Subscriber subscriber = entry.getValue();
+            if (!subscriber.tenant().equals(event.task().tenantId())) {
+                continue;
+            }
+            SseEmitter emitter = entry.getKey();
+            try {
+                subscriber.sender().execute(() -> send(emitter, event));
+            } catch (RejectedExecutionException e) {
+                // Unsubscribed meanwhile, or too far behind
+                if (!subscriber.sender().isShutdown()) {
+                    unsubscribe(emitter);
+                    emitter.complete();
+                }
+            }
+        }
+    }
+
+    private void send(SseEmitter emitter, TaskOverdueEvent event) {
+        try {
+            emitter.send(SseEmitter.event().name("overdue").data(event.task()));
+        } catch (IOException | IllegalStateException e) {
+            unsubscribe(emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void unsubscribe(SseEmitter emitter) {
+        Subscriber subscriber = subscribers.remove(emitter);
+        if (subscriber != null) {
+            subscriber.sender().shutdown();
+        }
+    }
+
+    private record Subscriber(String tenant, ExecutorService sender) {
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.taskmanagement.controller;
+
+import com.example.taskmanagement.config.ResponseCacheProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+// Fully encoded JSON bodies of list responses, keyed by tenant, query and the data version the caller
+// read before loading. A hit writes the stored bytes as they are, gzipped when the client accepts it.
+@Component
+public class ResponseCache {
+
+    // Rough size of an entry besides its bytes and key strings: cache node, key, response and array headers
+    private static final int ENTRY_OVERHEAD = 160;
+
+    private final Cache<Key, EncodedResponse> cache;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long gzipMinSize;
+
+    public ResponseCache(ResponseCacheProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((Key key, EncodedResponse response) -> ENTRY_OVERHEAD + key.size() + response.size())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .recordStats()
+                .build();
+        this.objectMapper = objectMapper;
+        this.enabled = properties.isEnabled();
+        this.gzipMinSize = properties.getGzipMinSize().toBytes();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tasks.responses");
+        Gauge.builder("tasks.responses.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .register(meterRegistry);
+        Gauge.builder("tasks.responses.cache.bytes", cache,
+                        c -> c.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public ResponseEntity<byte[]> respond(String tenant, String query, Object argument, long version,
+                                          String acceptEncoding, Supplier<?> loader) {
+        EncodedResponse response;
+        if (enabled) {
+            Key key = new Key(tenant, query, argument, version);
+            response = cache.getIfPresent(key);
+            if (response == null) {
+                response = encode(loader.get());
+                cache.put(key, response);
+            }
+        } else {
+            response = encode(loader.get());
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (response.gzipped() != null && acceptsGzip(acceptEncoding)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(response.gzipped());
+        }
+        return builder.body(response.identity());
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private EncodedResponse encode(Object value) {
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(value);
+            return new EncodedResponse(identity, identity.length >= gzipMinSize ? gzip(identity) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private record Key(String tenant, String query, Object argument, long version) {
+
+        // Query names are shared constants and enum arguments are singletons, so only strings count
+        int size() {
+            return tenant.length() + (argument instanceof String value ? value.length() : 0);
+        }
+    }
+
+    private record EncodedResponse(byte[] identity, byte[] gzipped) {
+
+        int size() {
+            return identity.length + (gzipped != null ? gzipped.length : 0);
+        }
+    }
+}
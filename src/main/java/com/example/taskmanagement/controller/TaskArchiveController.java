@@ -0,0 +1,35 @@
+package com.example.taskmanagement.controller;
+
+import com.example.taskmanagement.model.Task;
+import com.example.taskmanagement.service.TaskService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/tasks/archive")
+@CrossOrigin(origins = "*")
+public class TaskArchiveController {
+
+    private final TaskService taskService;
+
+    @Autowired
+    public TaskArchiveController(TaskService taskService) {
+        this.taskService = taskService;
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<Task>> searchArchivedTasks(@RequestParam String title) {
+        List<Task> tasks = taskService.searchArchivedTasks(title);
+        return ResponseEntity.ok(tasks);
+    }
+
+    @PostMapping("/{id}/restore")
+    public ResponseEntity<Task> restoreTask(@PathVariable Long id) {
+        return taskService.restoreTask(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -1,15 +1,34 @@
 package com.example.taskmanagement.controller;
 
+import com.example.taskmanagement.config.BatchLookupProperties;
+import com.example.taskmanagement.config.DueTaskProperties;
+import com.example.taskmanagement.dto.DueTask;
+import com.example.taskmanagement.dto.TaskLookupRequest;
+import com.example.taskmanagement.dto.TaskLookupResult;
 import com.example.taskmanagement.dto.TaskUpdateDTO;
 import com.example.taskmanagement.model.Task;
 import com.example.taskmanagement.model.TaskStatus;
 import com.example.taskmanagement.service.TaskService;
+import com.example.taskmanagement.service.TaskVersions;
+import com.example.taskmanagement.tenant.TenantContext;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -18,10 +37,26 @@ import java.util.List;
 public class TaskController {
 
     private final TaskService taskService;
+    private final BatchLookupProperties batchLookupProperties;
+    private final DueTaskProperties dueTaskProperties;
+    private final OverdueTaskStream overdueTaskStream;
+    private final ResponseCache responseCache;
+    private final TaskVersions taskVersions;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter taskWriter;
 
     @Autowired
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, BatchLookupProperties batchLookupProperties,
+                          DueTaskProperties dueTaskProperties, OverdueTaskStream overdueTaskStream,
+                          ResponseCache responseCache, TaskVersions taskVersions, ObjectMapper objectMapper) {
         this.taskService = taskService;
+        this.batchLookupProperties = batchLookupProperties;
+        this.dueTaskProperties = dueTaskProperties;
+        this.overdueTaskStream = overdueTaskStream;
+        this.responseCache = responseCache;
+        this.taskVersions = taskVersions;
+        this.objectMapper = objectMapper;
+        this.taskWriter = objectMapper.writerFor(Task.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     @GetMapping
@@ -37,22 +72,65 @@ public class TaskController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<StreamingResponseBody> getTasksByIds(@RequestParam List<Long> ids) {
+        return streamLookup(ids);
+    }
+
+    @PostMapping("/lookup")
+    public ResponseEntity<StreamingResponseBody> lookupTasks(@Valid @RequestBody TaskLookupRequest request) {
+        return streamLookup(request.getIds());
+    }
+
+    // The version is read before the query, so a body cached under it can only be newer than it claims
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Task>> getTasksByStatus(@PathVariable TaskStatus status) {
-        List<Task> tasks = taskService.getTasksByStatus(status);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<byte[]> getTasksByStatus(@PathVariable TaskStatus status,
+                                                   @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                   String acceptEncoding) {
+        String tenant = TenantContext.current();
+        return responseCache.respond(tenant, "status", status, taskVersions.of(tenant, status), acceptEncoding,
+                () -> taskService.getTasksByStatus(status));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Task>> searchTasks(@RequestParam String title) {
-        List<Task> tasks = taskService.searchTasksByTitle(title);
+    public ResponseEntity<byte[]> searchTasks(@RequestParam String title,
+                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                              String acceptEncoding) {
+        String tenant = TenantContext.current();
+        return responseCache.respond(tenant, "title", title, taskVersions.global(tenant), acceptEncoding,
+                () -> taskService.searchTasksByTitle(title));
+    }
+
+    @GetMapping("/due")
+    public ResponseEntity<List<DueTask>> getTasksDueWithin(@RequestParam Duration within,
+                                                           @RequestParam(required = false) Integer limit) {
+        if (within.isNegative() || (limit != null && limit < 1)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<DueTask> tasks = taskService.getTasksDueWithin(within, resultLimit(limit));
+        return ResponseEntity.ok(tasks);
+    }
+
+    @GetMapping("/overdue")
+    public ResponseEntity<List<DueTask>> getOverdueTasks(@RequestParam(required = false) Integer limit) {
+        if (limit != null && limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<DueTask> tasks = taskService.getOverdueTasks(resultLimit(limit));
         return ResponseEntity.ok(tasks);
     }
 
+    @GetMapping(path = "/overdue/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOverdueTasks() {
+        return overdueTaskStream.subscribe();
+    }
+
     @PostMapping
     public ResponseEntity<Task> createTask(@Valid @RequestBody Task task) {
         Task createdTask = taskService.createTask(task);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdTask);
+        return ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentRequestUri()
+                        .path("/{id}").buildAndExpand(createdTask.getId()).toUri())
+                .body(createdTask);
     }
 
     @PutMapping("/{id}")
@@ -67,4 +145,36 @@ public class TaskController {
         boolean deleted = taskService.deleteTask(id);
         return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
     }
+
+    private int resultLimit(Integer limit) {
+        return limit != null ? Math.min(limit, dueTaskProperties.getMaxResults()) : dueTaskProperties.getMaxResults();
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamLookup(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > batchLookupProperties.getMaxIds() || ids.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        TaskLookupResult result = taskService.getTasksByIds(ids);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> writeLookupResult(result, out));
+    }
+
+    // Streams {"tasks": [...], "missing": [...]} in one pass instead of building the document in memory
+    private void writeLookupResult(TaskLookupResult result, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("tasks");
+            for (Task task : result.getTasks()) {
+                taskWriter.writeValue(generator, task);
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("missing");
+            for (Long id : result.getMissing()) {
+                generator.writeNumber(id);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
 }
@@ -0,0 +1,30 @@
+package com.example.taskmanagement.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+// Restores a backup or another instance's export with its ids. Unlike /api/tasks/import it accepts ids
+// this instance never handed out, so it is an operator endpoint behind tasks.transfer.restore-endpoint-enabled.
+@RestController
+@RequestMapping("/api/admin/tasks")
+@ConditionalOnProperty(prefix = "tasks.transfer", name = "restore-endpoint-enabled", havingValue = "true")
+public class TaskRestoreController {
+
+    private final TaskTransferController taskTransferController;
+
+    @Autowired
+    public TaskRestoreController(TaskTransferController taskTransferController) {
+        this.taskTransferController = taskTransferController;
+    }
+
+    @PostMapping("/import")
+    public void restoreTasks(@RequestParam(defaultValue = "ndjson") String format, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        taskTransferController.streamImport(format, true, request, response);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.taskmanagement.controller;
+
+import com.example.taskmanagement.transfer.ImportProgress;
+import com.example.taskmanagement.transfer.TaskExporter;
+import com.example.taskmanagement.transfer.TaskImporter;
+import com.example.taskmanagement.transfer.TransferFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/tasks")
+@CrossOrigin(origins = "*")
+public class TaskTransferController {
+
+    private final TaskExporter taskExporter;
+    private final TaskImporter taskImporter;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public TaskTransferController(TaskExporter taskExporter, TaskImporter taskImporter, ObjectMapper objectMapper) {
+        this.taskExporter = taskExporter;
+        this.taskImporter = taskImporter;
+        this.objectMapper = objectMapper;
+    }
+
+    // Written on the request thread, so long exports are not cut off by the async request timeout
+    @GetMapping("/export")
+    public void exportTasks(@RequestParam(defaultValue = "ndjson") String format,
+                            @RequestParam(defaultValue = "false") boolean gzip,
+                            HttpServletResponse response) throws IOException {
+        Optional<TransferFormat> transferFormat = TransferFormat.parse(format);
+        if (transferFormat.isEmpty()) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unknown format " + format);
+            return;
+        }
+        TransferFormat selected = transferFormat.get();
+        String filename = "tasks." + selected.getExtension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : selected.getContentType());
+        if (!gzip) {
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+        taskExporter.export(selected, gzip, response.getOutputStream());
+    }
+
+    // Reads the request body as it arrives and answers with one NDJSON progress line per interval
+    @PostMapping("/import")
+    public void importTasks(@RequestParam(defaultValue = "ndjson") String format, HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        streamImport(format, false, request, response);
+    }
+
+    void streamImport(String format, boolean preserveIds, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Optional<TransferFormat> transferFormat = TransferFormat.parse(format);
+        if (transferFormat.isEmpty()) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unknown format " + format);
+            return;
+        }
+        response.setContentType(TransferFormat.NDJSON.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream out = response.getOutputStream();
+        ImportProgress result = taskImporter.importTasks(transferFormat.get(), request.getInputStream(),
+                progress -> writeProgress(progress, out), preserveIds);
+        writeProgress(result, out);
+    }
+
+    private void writeProgress(ImportProgress progress, OutputStream out) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(progress));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
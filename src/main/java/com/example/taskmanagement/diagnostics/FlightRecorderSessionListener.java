@@ -0,0 +1,88 @@
+package com.example.taskmanagement.diagnostics;
+
+import org.hibernate.SessionEventListener;
+
+// Registered through hibernate.session.events.auto, one instance per session
+public class FlightRecorderSessionListener implements SessionEventListener {
+
+    private HibernateFlushEvent flushEvent;
+    private JdbcExecuteEvent executeEvent;
+
+    @Override
+    public void flushStart() {
+        flushEvent = beginFlush(false);
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        commitFlush(numberOfEntities, numberOfCollections);
+    }
+
+    @Override
+    public void partialFlushStart() {
+        flushEvent = beginFlush(true);
+    }
+
+    @Override
+    public void partialFlushEnd(int numberOfEntities, int numberOfCollections) {
+        commitFlush(numberOfEntities, numberOfCollections);
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeEvent = beginExecute(false);
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        commitExecute();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executeEvent = beginExecute(true);
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        commitExecute();
+    }
+
+    private static HibernateFlushEvent beginFlush(boolean partial) {
+        HibernateFlushEvent event = new HibernateFlushEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.partial = partial;
+        event.begin();
+        return event;
+    }
+
+    private void commitFlush(int numberOfEntities, int numberOfCollections) {
+        HibernateFlushEvent event = flushEvent;
+        flushEvent = null;
+        if (event != null && event.shouldCommit()) {
+            event.entityCount = numberOfEntities;
+            event.collectionCount = numberOfCollections;
+            event.commit();
+        }
+    }
+
+    private static JdbcExecuteEvent beginExecute(boolean batch) {
+        JdbcExecuteEvent event = new JdbcExecuteEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.batch = batch;
+        event.begin();
+        return event;
+    }
+
+    private void commitExecute() {
+        JdbcExecuteEvent event = executeEvent;
+        executeEvent = null;
+        if (event != null && event.shouldCommit()) {
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.taskmanagement.diagnostics;
+
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+
+// Wraps the MVC validator so time spent on @Valid shows up separately from JSON binding
+public class FlightRecorderValidator implements SmartValidator {
+
+    private final SmartValidator delegate;
+
+    public FlightRecorderValidator(SmartValidator delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        validate(target, errors, new Object[0]);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        TaskValidationEvent event = new TaskValidationEvent();
+        event.begin();
+        try {
+            delegate.validate(target, errors, validationHints);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.target = target.getClass().getSimpleName();
+                event.errorCount = errors.getErrorCount();
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.taskmanagement.diagnostics;
+
+import com.example.taskmanagement.config.FlightRecorderProperties;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+// Owns the single on-demand recording started through the admin endpoint
+public class FlightRecordings {
+
+    private final FlightRecorderProperties properties;
+    private Recording current;
+
+    public FlightRecordings(FlightRecorderProperties properties) {
+        this.properties = properties;
+    }
+
+    public synchronized Optional<RecordingInfo> start(Duration duration) throws IOException, ParseException {
+        if (current != null && current.getState() == RecordingState.RUNNING) {
+            return Optional.empty();
+        }
+        closeCurrent();
+        Duration bounded = duration == null || duration.compareTo(properties.getMaxDuration()) > 0
+                ? properties.getMaxDuration() : duration;
+
+        Recording recording = new Recording(Configuration.getConfiguration(properties.getSettings()));
+        recording.setName("tasks-" + Instant.now().toEpochMilli());
+        recording.setDuration(bounded);
+        recording.setMaxSize(properties.getMaxSize().toBytes());
+        recording.setToDisk(true);
+        recording.enable(TaskRequestEvent.class);
+        recording.enable(TaskHandlerEvent.class);
+        recording.enable(TaskValidationEvent.class);
+        recording.enable(TaskServiceEvent.class).withThreshold(properties.getThreshold());
+        recording.enable(TaskQueryEvent.class).withThreshold(properties.getThreshold());
+        recording.enable(HibernateFlushEvent.class).withThreshold(properties.getThreshold());
+        recording.enable(JdbcExecuteEvent.class).withThreshold(properties.getThreshold());
+        recording.start();
+        current = recording;
+        return Optional.of(RecordingInfo.of(recording));
+    }
+
+    public synchronized Optional<RecordingInfo> current() {
+        return Optional.ofNullable(current).map(RecordingInfo::of);
+    }
+
+    // Stops the recording if it is still running and hands it over; the caller closes it once streamed
+    public synchronized Optional<Recording> stop() {
+        Recording recording = current;
+        current = null;
+        if (recording == null) {
+            return Optional.empty();
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        return Optional.of(recording);
+    }
+
+    public synchronized void closeCurrent() {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+    }
+
+    public record RecordingInfo(long id, String name, RecordingState state, Instant startTime, Duration duration,
+                                long size) {
+
+        static RecordingInfo of(Recording recording) {
+            return new RecordingInfo(recording.getId(), recording.getName(), recording.getState(),
+                    recording.getStartTime(), recording.getDuration(), recording.getSize());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.taskmanagement.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.taskmanagement.Flush")
+@Label("Hibernate Flush")
+@Category({"Task Management", "Persistence"})
+@Enabled(false)
+@StackTrace(false)
+class HibernateFlushEvent extends Event {
+
+    @Label("Partial")
+    boolean partial;
+
+    @Label("Entity Count")
+    int entityCount;
+
+    @Label("Collection Count")
+    int collectionCount;
+}
@@ -0,0 +1,21 @@
+package com.example.taskmanagement.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.taskmanagement.JdbcExecute")
+@Label("JDBC Execute")
+@Category({"Task Management", "Persistence"})
+@Description("Execution of a JDBC statement or batch issued by Hibernate")
+@Enabled(false)
+@StackTrace(false)
+class JdbcExecuteEvent extends Event {
+
+    @Label("Batch")
+    boolean batch;
+}
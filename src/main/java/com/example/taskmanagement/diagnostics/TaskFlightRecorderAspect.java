@@ -0,0 +1,125 @@
+package com.example.taskmanagement.diagnostics;
+
+import com.example.taskmanagement.dto.TaskLookupResult;
+import com.example.taskmanagement.model.Task;
+import com.example.taskmanagement.model.TaskStatus;
+import com.example.taskmanagement.repository.ShardContext;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Collection;
+import java.util.Optional;
+
+// Emits JFR events around controller handlers, service methods and repository calls. While the
+// events are disabled, begin/shouldCommit are no-ops and the event objects never escape, so the
+// JIT removes them.
+@Aspect
+public class TaskFlightRecorderAspect {
+
+    @Around("execution(public * com.example.taskmanagement.controller.*Controller.*(..))")
+    public Object recordHandler(ProceedingJoinPoint joinPoint) throws Throwable {
+        TaskHandlerEvent event = new TaskHandlerEvent();
+        event.begin();
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                Object body = result instanceof ResponseEntity<?> response ? response.getBody() : result;
+                event.handler = joinPoint.getSignature().getDeclaringType().getSimpleName() + "."
+                        + joinPoint.getSignature().getName();
+                event.taskId = taskId(joinPoint.getArgs(), body);
+                event.taskStatus = taskStatus(joinPoint.getArgs(), body);
+                event.rowCount = rowCount(body);
+                if (result instanceof ResponseEntity<?> response) {
+                    event.status = response.getStatusCode().value();
+                }
+                event.commit();
+            }
+        }
+    }
+
+    @Around("execution(public * com.example.taskmanagement.service.TaskService.*(..))")
+    public Object recordService(ProceedingJoinPoint joinPoint) throws Throwable {
+        TaskServiceEvent event = new TaskServiceEvent();
+        event.begin();
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = joinPoint.getSignature().getName();
+                event.taskId = taskId(joinPoint.getArgs(), result);
+                event.taskStatus = taskStatus(joinPoint.getArgs(), result);
+                event.rowCount = rowCount(result);
+                event.commit();
+            }
+        }
+    }
+
+    @Around("execution(* com.example.taskmanagement.repository.TaskRepository+.*(..))")
+    public Object recordQuery(ProceedingJoinPoint joinPoint) throws Throwable {
+        TaskQueryEvent event = new TaskQueryEvent();
+        event.begin();
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.query = joinPoint.getSignature().getName();
+                event.shard = ShardContext.current();
+                event.taskId = taskId(joinPoint.getArgs(), result);
+                event.taskStatus = taskStatus(joinPoint.getArgs(), result);
+                event.rowCount = rowCount(result);
+                event.commit();
+            }
+        }
+    }
+
+    private static long taskId(Object[] args, Object result) {
+        for (Object arg : args) {
+            if (arg instanceof Long id) {
+                return id;
+            }
+        }
+        Task task = task(result);
+        return task != null && task.getId() != null ? task.getId() : 0;
+    }
+
+    private static String taskStatus(Object[] args, Object result) {
+        for (Object arg : args) {
+            if (arg instanceof TaskStatus status) {
+                return status.name();
+            }
+        }
+        Task task = task(result);
+        return task != null && task.getStatus() != null ? task.getStatus().name() : null;
+    }
+
+    private static Task task(Object result) {
+        if (result instanceof Optional<?> optional) {
+            result = optional.orElse(null);
+        }
+        return result instanceof Task task ? task : null;
+    }
+
+    private static int rowCount(Object result) {
+        return switch (result) {
+            case Collection<?> collection -> collection.size();
+            case Slice<?> slice -> slice.getNumberOfElements();
+            case TaskLookupResult lookup -> lookup.getTasks().size();
+            case Optional<?> optional -> optional.isPresent() ? 1 : 0;
+            case Task task -> 1;
+            case null, default -> 0;
+        };
+    }
+}
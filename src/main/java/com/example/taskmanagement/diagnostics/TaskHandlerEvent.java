@@ -0,0 +1,33 @@
+package com.example.taskmanagement.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.taskmanagement.Handler")
+@Label("Controller Handler")
+@Category({"Task Management", "Web"})
+@Description("Controller method body, excluding argument binding and response serialization")
+@Enabled(false)
+@StackTrace(false)
+class TaskHandlerEvent extends Event {
+
+    @Label("Handler")
+    String handler;
+
+    @Label("Task Id")
+    long taskId;
+
+    @Label("Task Status")
+    String taskStatus;
+
+    @Label("Row Count")
+    int rowCount;
+
+    @Label("Response Status")
+    int status;
+}
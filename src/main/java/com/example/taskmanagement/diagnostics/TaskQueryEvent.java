@@ -0,0 +1,31 @@
+package com.example.taskmanagement.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.taskmanagement.Query")
+@Label("Repository Query")
+@Category({"Task Management", "Persistence"})
+@Enabled(false)
+@StackTrace(false)
+class TaskQueryEvent extends Event {
+
+    @Label("Query")
+    String query;
+
+    @Label("Shard")
+    int shard;
+
+    @Label("Task Id")
+    long taskId;
+
+    @Label("Task Status")
+    String taskStatus;
+
+    @Label("Row Count")
+    int rowCount;
+}
@@ -0,0 +1,27 @@
+package com.example.taskmanagement.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.taskmanagement.Request")
+@Label("HTTP Request")
+@Category({"Task Management", "Web"})
+@Description("Whole dispatch of a task API request, including JSON binding, validation and response writing")
+@Enabled(false)
+@StackTrace(false)
+class TaskRequestEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("URI")
+    String uri;
+
+    @Label("Response Status")
+    int status;
+}
@@ -0,0 +1,28 @@
+package com.example.taskmanagement.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.taskmanagement.Service")
+@Label("Service Method")
+@Category({"Task Management", "Service"})
+@Enabled(false)
+@StackTrace(false)
+class TaskServiceEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Task Id")
+    long taskId;
+
+    @Label("Task Status")
+    String taskStatus;
+
+    @Label("Row Count")
+    int rowCount;
+}
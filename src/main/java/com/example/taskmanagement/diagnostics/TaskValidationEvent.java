@@ -0,0 +1,24 @@
+package com.example.taskmanagement.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.taskmanagement.Validation")
+@Label("Bean Validation")
+@Category({"Task Management", "Web"})
+@Description("Bean Validation of a @Valid request body")
+@Enabled(false)
+@StackTrace(false)
+class TaskValidationEvent extends Event {
+
+    @Label("Target Type")
+    String target;
+
+    @Label("Error Count")
+    int errorCount;
+}
@@ -0,0 +1,17 @@
+package com.example.taskmanagement.dto;
+
+import com.example.taskmanagement.model.Task;
+import com.example.taskmanagement.model.TaskPriority;
+import com.example.taskmanagement.model.TaskStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+
+public record DueTask(Long id, String title, TaskStatus status, TaskPriority priority, LocalDateTime dueAt,
+                      @JsonIgnore String tenantId, @JsonIgnore LocalDateTime updatedAt) {
+
+    public static DueTask of(Task task) {
+        return new DueTask(task.getId(), task.getTitle(), task.getStatus(), task.getPriority(), task.getDueAt(),
+                task.getTenantId(), task.getUpdatedAt());
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.taskmanagement.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public class TaskLookupRequest {
+
+    @NotEmpty(message = "At least one id is required")
+    private List<@NotNull Long> ids;
+
+    // Constructors
+    public TaskLookupRequest() {
+    }
+
+    public TaskLookupRequest(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    // Getters and Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+}
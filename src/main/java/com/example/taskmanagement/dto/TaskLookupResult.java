@@ -0,0 +1,26 @@
+package com.example.taskmanagement.dto;
+
+import com.example.taskmanagement.model.Task;
+
+import java.util.List;
+
+public class TaskLookupResult {
+
+    private final List<Task> tasks;
+
+    private final List<Long> missing;
+
+    public TaskLookupResult(List<Task> tasks, List<Long> missing) {
+        this.tasks = tasks;
+        this.missing = missing;
+    }
+
+    // Getters
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public List<Long> getMissing() {
+        return missing;
+    }
+}
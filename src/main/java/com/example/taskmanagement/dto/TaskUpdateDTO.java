@@ -1,8 +1,11 @@
 package com.example.taskmanagement.dto;
 
+import com.example.taskmanagement.model.TaskPriority;
 import com.example.taskmanagement.model.TaskStatus;
 import jakarta.validation.constraints.Size;
 
+import java.time.LocalDateTime;
+
 public class TaskUpdateDTO {
 
     @Size(max = 100, message = "Title must be less than 100 characters")
@@ -13,6 +16,10 @@ public class TaskUpdateDTO {
 
     private TaskStatus status;
 
+    private TaskPriority priority;
+
+    private LocalDateTime dueAt;
+
     // Constructors
     public TaskUpdateDTO() {
     }
@@ -47,4 +54,20 @@ public class TaskUpdateDTO {
     public void setStatus(TaskStatus status) {
         this.status = status;
     }
-}
\ No newline at end of file
+
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(TaskPriority priority) {
+        this.priority = priority;
+    }
+
+    public LocalDateTime getDueAt() {
+        return dueAt;
+    }
+
+    public void setDueAt(LocalDateTime dueAt) {
+        this.dueAt = dueAt;
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.taskmanagement.idempotency;
+
+import com.example.taskmanagement.tenant.TenantContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Replays the stored response for a repeated Idempotency-Key instead of executing the request
+// again. Duplicates arriving while the first request is still running wait for its outcome. A key
+// reused with a different body or query string is answered with 422 rather than the stored response.
+// Only outcomes a retry would get again are stored: successes and rejections of the request itself.
+// Refusals that depend on the moment, such as quota (403), rate (429) and conflicts, are not.
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Set<Integer> FINAL_CLIENT_ERRORS = Set.of(400, 405, 413, 415, 422);
+    // Written by the servlet container or by replay itself, or specific to one response
+    private static final Set<String> UNREPLAYED_HEADERS = caseInsensitive(HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION, HttpHeaders.DATE,
+            HttpHeaders.SET_COOKIE, REPLAYED_HEADER);
+
+    private final IdempotencyStore store;
+    private final List<String> excludedPaths;
+    private final long maxWaitNanos;
+    private final long maxResponseSize;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ConcurrentHashMap<String, Claim> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyFilter(IdempotencyStore store, List<String> excludedPaths, Duration maxWait,
+                             long maxResponseSize) {
+        this.store = store;
+        this.excludedPaths = List.copyOf(excludedPaths);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.maxResponseSize = maxResponseSize;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (request.getHeader(KEY_HEADER) == null || !MUTATING_METHODS.contains(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return excludedPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(KEY_HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid " + KEY_HEADER);
+            return;
+        }
+        // Scoped to the tenant and the endpoint, so reusing a key elsewhere is not mistaken for a retry
+        String key = TenantContext.current() + " " + request.getMethod() + " " + request.getRequestURI() + " "
+                + idempotencyKey;
+
+        byte[] body = request.getInputStream().readAllBytes();
+        String requestHash = requestHash(request.getQueryString(), body);
+
+        Optional<StoredResponse> stored = store.find(key);
+        if (stored.isPresent()) {
+            replay(stored.get(), requestHash, response);
+            return;
+        }
+
+        Claim claim = new Claim(requestHash, new CompletableFuture<>());
+        Claim running = inFlight.putIfAbsent(key, claim);
+        if (running != null) {
+            if (!running.requestHash().equals(requestHash)) {
+                rejectMismatch(response);
+                return;
+            }
+            awaitAndReplay(running.outcome(), requestHash, response);
+            return;
+        }
+        StoredResponse result = null;
+        try {
+            // The original may have completed between the lookup and claiming the key
+            stored = store.find(key);
+            if (stored.isPresent()) {
+                result = stored.get();
+                replay(result, requestHash, response);
+                return;
+            }
+            ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+            chain.doFilter(new CachedBodyRequest(request, body), captured);
+            if (isFinal(captured.getStatus()) && captured.getContentSize() <= maxResponseSize) {
+                StoredResponse executed = new StoredResponse(captured.getStatus(), captured.getContentType(),
+                        replayedHeaders(captured), captured.getContentAsByteArray(), requestHash);
+                // The request has run, so a failure to store it must not turn its response into an error
+                try {
+                    store.save(key, executed);
+                    result = executed;
+                } catch (DataAccessException e) {
+                    log.warn("Could not store the response for {} {}", KEY_HEADER, idempotencyKey, e);
+                }
+            }
+            captured.copyBodyToResponse();
+        } finally {
+            inFlight.remove(key, claim);
+            claim.outcome().complete(result);
+        }
+    }
+
+    private void awaitAndReplay(CompletableFuture<StoredResponse> running, String requestHash,
+                                HttpServletResponse response) throws IOException {
+        StoredResponse result = null;
+        try {
+            result = running.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Fall through to 409, the client retries once the original has finished
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (result == null) {
+            response.sendError(HttpStatus.CONFLICT.value(), "A request with this " + KEY_HEADER + " is in progress");
+            return;
+        }
+        replay(result, requestHash, response);
+    }
+
+    private static void replay(StoredResponse stored, String requestHash, HttpServletResponse response)
+            throws IOException {
+        if (stored.requestHash() != null && !stored.requestHash().equals(requestHash)) {
+            rejectMismatch(response);
+            return;
+        }
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        stored.headers().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static boolean isFinal(int status) {
+        return (status >= 200 && status < 300) || FINAL_CLIENT_ERRORS.contains(status);
+    }
+
+    private static Map<String, List<String>> replayedHeaders(HttpServletResponse response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            if (!UNREPLAYED_HEADERS.contains(name)) {
+                headers.put(name, List.copyOf(response.getHeaders(name)));
+            }
+        }
+        return headers;
+    }
+
+    private static Set<String> caseInsensitive(String... names) {
+        Set<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        set.addAll(List.of(names));
+        return set;
+    }
+
+    private static void rejectMismatch(HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                "This " + KEY_HEADER + " was already used for a different request");
+    }
+
+    private static String requestHash(String queryString, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            if (queryString != null) {
+                digest.update(queryString.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Claim(String requestHash, CompletableFuture<StoredResponse> outcome) {
+    }
+
+    // The body was read up front to fingerprint it, so it is served again from memory
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
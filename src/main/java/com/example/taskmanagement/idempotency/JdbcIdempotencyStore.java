@@ -0,0 +1,99 @@
+package com.example.taskmanagement.idempotency;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+
+    public JdbcIdempotencyStore(DataSource dataSource, Duration ttl) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.ttl = ttl;
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS idempotency_keys (
+                    idempotency_key VARCHAR(512) PRIMARY KEY,
+                    status INT NOT NULL,
+                    content_type VARCHAR(255),
+                    headers VARCHAR(8192),
+                    body VARBINARY(1048576) NOT NULL,
+                    request_hash VARCHAR(64),
+                    created_at TIMESTAMP NOT NULL
+                )""");
+        // Tables created before request hashes were stored
+        jdbcTemplate.execute("ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS request_hash VARCHAR(64)");
+        jdbcTemplate.execute("ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS headers VARCHAR(8192)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys (created_at)");
+    }
+
+    @Override
+    public Optional<StoredResponse> find(String key) {
+        return jdbcTemplate.query(
+                "SELECT status, content_type, headers, body, request_hash FROM idempotency_keys"
+                        + " WHERE idempotency_key = ? AND created_at > ?",
+                (rs, row) -> new StoredResponse(rs.getInt(1), rs.getString(2), decodeHeaders(rs.getString(3)),
+                        rs.getBytes(4), rs.getString(5)),
+                key, Timestamp.from(Instant.now().minus(ttl))).stream().findFirst();
+    }
+
+    @Override
+    public void save(String key, StoredResponse response) {
+        Timestamp now = Timestamp.from(Instant.now());
+        String headers = encodeHeaders(response.headers());
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO idempotency_keys"
+                            + " (idempotency_key, status, content_type, headers, body, request_hash, created_at)"
+                            + " VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    key, response.status(), response.contentType(), headers, response.body(),
+                    response.requestHash(), now);
+        } catch (DuplicateKeyException e) {
+            // An expired entry with the same key is still waiting for the purge
+            jdbcTemplate.update(
+                    "UPDATE idempotency_keys SET status = ?, content_type = ?, headers = ?, body = ?, request_hash = ?,"
+                            + " created_at = ? WHERE idempotency_key = ?",
+                    response.status(), response.contentType(), headers, response.body(), response.requestHash(),
+                    now, key);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.idempotency.purge-interval:PT10M}")
+    public void purgeExpired() {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE created_at <= ?", Timestamp.from(Instant.now().minus(ttl)));
+    }
+
+    // One "name: value" line per header value; header values cannot contain line breaks
+    private static String encodeHeaders(Map<String, List<String>> headers) {
+        StringBuilder encoded = new StringBuilder();
+        headers.forEach((name, values) -> values.forEach(value -> encoded.append(name).append(": ").append(value)
+                .append('\n')));
+        return encoded.toString();
+    }
+
+    // Entries stored before headers were kept have none
+    private static Map<String, List<String>> decodeHeaders(String encoded) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        if (encoded != null) {
+            for (String line : encoded.split("\n")) {
+                int colon = line.indexOf(": ");
+                if (colon > 0) {
+                    headers.computeIfAbsent(line.substring(0, colon), name -> new ArrayList<>())
+                            .add(line.substring(colon + 2));
+                }
+            }
+        }
+        return headers;
+    }
+}
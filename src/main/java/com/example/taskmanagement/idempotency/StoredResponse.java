@@ -0,0 +1,10 @@
+package com.example.taskmanagement.idempotency;
+
+import java.util.List;
+import java.util.Map;
+
+// requestHash fingerprints the request the response was produced for; null for entries stored before it was kept.
+// headers are the response headers replayed along with the body, such as Location.
+public record StoredResponse(int status, String contentType, Map<String, List<String>> headers, byte[] body,
+                             String requestHash) {
+}
@@ -0,0 +1,91 @@
+package com.example.taskmanagement.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// Cold copy of a task in a terminal status. Title and status stay queryable,
+// the full task is kept as a gzip-compressed JSON payload.
+@Entity
+@Table(name = "archived_tasks", indexes = {
+        @Index(name = "idx_archived_tasks_tenant_title", columnList = "tenant_id, title")
+})
+public class ArchivedTask implements Persistable<Long> {
+
+    @Id
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false, length = 64, updatable = false)
+    @ColumnDefault("'default'")
+    private String tenantId;
+
+    @Column(nullable = false, length = 100)
+    private String title;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskStatus status;
+
+    @Column(name = "archived_at", nullable = false, updatable = false)
+    private LocalDateTime archivedAt;
+
+    @Lob
+    @Column(nullable = false, updatable = false)
+    private byte[] payload;
+
+    @Transient
+    private boolean isNew = true;
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        isNew = false;
+    }
+
+    // Constructors
+    protected ArchivedTask() {
+    }
+
+    public ArchivedTask(Long id, String tenantId, String title, TaskStatus status, LocalDateTime archivedAt,
+                        byte[] payload) {
+        this.id = id;
+        this.tenantId = tenantId;
+        this.title = title;
+        this.status = status;
+        this.archivedAt = archivedAt;
+        this.payload = payload;
+    }
+
+    // Getters
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+}
@@ -1,18 +1,40 @@
 package com.example.taskmanagement.model;
 
+import com.example.taskmanagement.repository.CachedTaskQueries;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.springframework.data.domain.Persistable;
+
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tasks")
-public class Task {
-
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_status_updated_at", columnList = "status, updated_at"),
+        @Index(name = "idx_tasks_status_due_at", columnList = "status, due_at"),
+        @Index(name = "idx_tasks_tenant_id", columnList = "tenant_id, id"),
+        @Index(name = "idx_tasks_tenant_status", columnList = "tenant_id, status, id"),
+        @Index(name = "idx_tasks_tenant_title", columnList = "tenant_id, title")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CachedTaskQueries.ENTITY_REGION)
+@EntityListeners({TaskIdListener.class, TaskVersionListener.class})
+public class Task implements Persistable<Long> {
+
+    // Ids are allocated up front by TaskIdAllocator so the owning shard is known before insert
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Set from TenantContext on insert and never exposed, so clients cannot move tasks between tenants
+    @JsonIgnore
+    @Column(name = "tenant_id", nullable = false, length = 64, updatable = false)
+    @ColumnDefault("'default'")
+    private String tenantId;
+
     @NotBlank(message = "Title is required")
     @Size(max = 100, message = "Title must be less than 100 characters")
     @Column(nullable = false, length = 100)
@@ -26,15 +48,29 @@ public class Task {
     @Column(nullable = false)
     private TaskStatus status = TaskStatus.PENDING;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @ColumnDefault("'MEDIUM'")
+    private TaskPriority priority = TaskPriority.MEDIUM;
+
+    @Column(name = "due_at")
+    private LocalDateTime dueAt;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Transient
+    private boolean isNew = true;
+
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        // Tasks restored from the archive keep their original creation time
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
         updatedAt = LocalDateTime.now();
     }
 
@@ -43,6 +79,12 @@ public class Task {
         updatedAt = LocalDateTime.now();
     }
 
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        isNew = false;
+    }
+
     // Constructors
     public Task() {
     }
@@ -53,6 +95,20 @@ public class Task {
         this.status = status != null ? status : TaskStatus.PENDING;
     }
 
+    // A detached copy, so a loaded task can be handed to other threads without its persistence context
+    public Task(Task other) {
+        this.id = other.id;
+        this.tenantId = other.tenantId;
+        this.title = other.title;
+        this.description = other.description;
+        this.status = other.status;
+        this.priority = other.priority;
+        this.dueAt = other.dueAt;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.isNew = other.isNew;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -62,6 +118,20 @@ public class Task {
         this.id = id;
     }
 
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return isNew;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -86,6 +156,22 @@ public class Task {
         this.status = status;
     }
 
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(TaskPriority priority) {
+        this.priority = priority;
+    }
+
+    public LocalDateTime getDueAt() {
+        return dueAt;
+    }
+
+    public void setDueAt(LocalDateTime dueAt) {
+        this.dueAt = dueAt;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,29 @@
+package com.example.taskmanagement.model;
+
+import com.example.taskmanagement.repository.TaskIdAllocator;
+import com.example.taskmanagement.service.TaskIdFilter;
+import com.example.taskmanagement.tenant.TenantContext;
+import jakarta.persistence.PrePersist;
+import org.springframework.beans.factory.annotation.Autowired;
+
+// Assigns ids and tenants to tasks persisted without going through TaskService, and registers every
+// new id with the id filter before the insert commits
+public class TaskIdListener {
+
+    @Autowired
+    private TaskIdAllocator taskIdAllocator;
+
+    @Autowired
+    private TaskIdFilter taskIdFilter;
+
+    @PrePersist
+    void assignId(Task task) {
+        if (task.getId() == null) {
+            task.setId(taskIdAllocator.nextId());
+        }
+        if (task.getTenantId() == null) {
+            task.setTenantId(TenantContext.current());
+        }
+        taskIdFilter.add(task.getId());
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.taskmanagement.model;
+
+public enum TaskPriority {
+    LOW,
+    MEDIUM,
+    HIGH,
+    URGENT
+}
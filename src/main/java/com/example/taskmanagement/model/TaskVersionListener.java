@@ -0,0 +1,22 @@
+package com.example.taskmanagement.model;
+
+import com.example.taskmanagement.service.TaskVersions;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+// Moves the response versions for every JPA write, whether or not it went through TaskService.
+// Only the new status is known here; TaskService bumps the previous one when an update changes it.
+public class TaskVersionListener {
+
+    @Autowired
+    private TaskVersions taskVersions;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void bump(Task task) {
+        taskVersions.bumpAfterCommit(task.getTenantId(), task.getStatus());
+    }
+}
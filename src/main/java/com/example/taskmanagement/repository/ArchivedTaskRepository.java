@@ -0,0 +1,13 @@
+package com.example.taskmanagement.repository;
+
+import com.example.taskmanagement.model.ArchivedTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+
+    List<ArchivedTask> findByTenantIdAndTitleContainingIgnoreCase(String tenantId, String title);
+}
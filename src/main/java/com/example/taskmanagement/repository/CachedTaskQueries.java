@@ -0,0 +1,21 @@
+package com.example.taskmanagement.repository;
+
+import com.example.taskmanagement.model.Task;
+import com.example.taskmanagement.model.TaskStatus;
+
+import java.util.List;
+
+// List queries served from the Hibernate query cache. Each shard gets its own query region
+// because the cache key only covers the SQL and its parameters, not the database it ran on.
+public interface CachedTaskQueries {
+
+    String ENTITY_REGION = "tasks";
+
+    static String queryRegion(int shard) {
+        return "task-queries-shard-" + shard;
+    }
+
+    List<Task> findByTenantIdAndStatus(String tenantId, TaskStatus status);
+
+    List<Task> findByTenantIdAndTitleContainingIgnoreCase(String tenantId, String title);
+}
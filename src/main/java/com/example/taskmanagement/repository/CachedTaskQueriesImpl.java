@@ -0,0 +1,45 @@
+package com.example.taskmanagement.repository;
+
+import com.example.taskmanagement.model.Task;
+import com.example.taskmanagement.model.TaskStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.AvailableHints;
+
+import java.util.List;
+
+class CachedTaskQueriesImpl implements CachedTaskQueries {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Task> findByTenantIdAndStatus(String tenantId, TaskStatus status) {
+        return cached(entityManager
+                .createQuery("select t from Task t where t.tenantId = :tenantId and t.status = :status", Task.class)
+                .setParameter("tenantId", tenantId)
+                .setParameter("status", status));
+    }
+
+    // The tenant bounds the index range scanned; the title itself can only be matched row by row
+    @Override
+    public List<Task> findByTenantIdAndTitleContainingIgnoreCase(String tenantId, String title) {
+        return cached(entityManager
+                .createQuery("select t from Task t where t.tenantId = :tenantId"
+                        + " and upper(t.title) like :pattern escape '\\'", Task.class)
+                .setParameter("tenantId", tenantId)
+                .setParameter("pattern", "%" + escapeLike(title.toUpperCase()) + "%"));
+    }
+
+    private List<Task> cached(TypedQuery<Task> query) {
+        return query
+                .setHint(AvailableHints.HINT_CACHEABLE, true)
+                .setHint(AvailableHints.HINT_CACHE_REGION, CachedTaskQueries.queryRegion(ShardContext.current()))
+                .getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.taskmanagement.repository;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+public class ShardDataSources implements AutoCloseable {
+
+    private final List<DataSource> shards;
+
+    public ShardDataSources(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+    }
+
+    public List<DataSource> all() {
+        return shards;
+    }
+
+    public DataSource get(int shard) {
+        return shards.get(shard);
+    }
+
+    public int count() {
+        return shards.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource shard : shards) {
+            if (shard instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.taskmanagement.repository;
+
+import com.example.taskmanagement.config.ShardingProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Hands out globally unique task ids in blocks reserved from a sequence on shard 0,
+// so ids never collide across shards and most allocations stay in memory.
+@Component
+public class TaskIdAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskIdAllocator.class);
+
+    private static final String SEQUENCE = "task_id_seq";
+
+    private final ShardDataSources shardDataSources;
+    private final int blockSize;
+
+    private boolean sequenceReady;
+    private long next;
+    private long limit;
+    // Highest id of the current block written without going through the allocator, e.g. by a bulk import
+    private long taken;
+
+    public TaskIdAllocator(ShardDataSources shardDataSources, ShardingProperties properties) {
+        this.shardDataSources = shardDataSources;
+        this.blockSize = properties.getIdBlockSize();
+    }
+
+    public synchronized long nextId() {
+        if (next == limit || next <= taken) {
+            next = reserveBlock();
+            limit = next + blockSize;
+        }
+        return next++;
+    }
+
+    // Keeps future allocations above an id that was inserted as is. Only ids the sequence has already
+    // handed out are accepted, so an inserted id can never move the sequence itself.
+    public synchronized boolean reserveThrough(long id) {
+        if (limit == 0) {
+            next = reserveBlock();
+            limit = next + blockSize;
+        }
+        if (id >= limit) {
+            return false;
+        }
+        taken = Math.max(taken, id);
+        return true;
+    }
+
+    // Moves the sequence past an id inserted as is, however high. Only trusted imports that keep
+    // their ids use this; false when no block would fit above the id.
+    public synchronized boolean advancePast(long id) {
+        if (id > Long.MAX_VALUE - 2L * blockSize) {
+            return false;
+        }
+        if (limit == 0) {
+            next = reserveBlock();
+            limit = next + blockSize;
+        }
+        if (id >= limit) {
+            JdbcTemplate sequenceShard = new JdbcTemplate(shardDataSources.get(0));
+            long blockStart = nextValue(sequenceShard);
+            if (blockStart <= id) {
+                sequenceShard.execute("ALTER SEQUENCE " + SEQUENCE + " RESTART WITH " + (id + 1));
+                blockStart = nextValue(sequenceShard);
+            }
+            next = blockStart;
+            limit = blockStart + blockSize;
+        }
+        taken = Math.max(taken, id);
+        return true;
+    }
+
+    private long reserveBlock() {
+        JdbcTemplate sequenceShard = new JdbcTemplate(shardDataSources.get(0));
+        if (!sequenceReady) {
+            long start = highestExistingId() + 1;
+            sequenceShard.execute("CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE
+                    + " START WITH " + start + " INCREMENT BY " + blockSize);
+            // The increment is the block size the sequence was created with. Realigning it keeps the next
+            // value where it is, so blocks of the new size start past every block handed out before.
+            Long increment = sequenceShard.queryForObject(
+                    "SELECT INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?", Long.class,
+                    SEQUENCE.toUpperCase());
+            if (increment == null || increment != blockSize) {
+                log.info("Changing the increment of {} from {} to id-block-size {}", SEQUENCE, increment, blockSize);
+                sequenceShard.execute("ALTER SEQUENCE " + SEQUENCE + " INCREMENT BY " + blockSize);
+            }
+            sequenceReady = true;
+        }
+        return nextValue(sequenceShard);
+    }
+
+    private static long nextValue(JdbcTemplate sequenceShard) {
+        Long value = sequenceShard.queryForObject("SELECT NEXT VALUE FOR " + SEQUENCE, Long.class);
+        if (value == null) {
+            throw new IllegalStateException("Sequence " + SEQUENCE + " returned no value");
+        }
+        return value;
+    }
+
+    private long highestExistingId() {
+        long highest = 0;
+        for (int shard = 0; shard < shardDataSources.count(); shard++) {
+            Long max = new JdbcTemplate(shardDataSources.get(shard))
+                    .queryForObject("SELECT COALESCE(MAX(id), 0) FROM tasks", Long.class);
+            highest = Math.max(highest, max != null ? max : 0);
+        }
+        return highest;
+    }
+}
@@ -2,15 +2,22 @@ package com.example.taskmanagement.repository;
 
 import com.example.taskmanagement.model.Task;
 import com.example.taskmanagement.model.TaskStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
-    
-    List<Task> findByStatus(TaskStatus status);
-    
-    List<Task> findByTitleContainingIgnoreCase(String title);
+public interface TaskRepository extends JpaRepository<Task, Long>, CachedTaskQueries {
+
+    List<Task> findByTenantId(String tenantId);
+
+    long countByTenantId(String tenantId);
+
+    List<Task> findByStatusInAndUpdatedAtBefore(Collection<TaskStatus> statuses, LocalDateTime cutoff, Pageable page);
+
+    List<Task> findByStatusInAndDueAtIsNotNull(Collection<TaskStatus> statuses);
 }
@@ -0,0 +1,201 @@
+package com.example.taskmanagement.repository;
+
+import com.example.taskmanagement.config.ShardingProperties;
+import com.example.taskmanagement.model.Task;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+@Component
+public class TaskShards {
+
+    private static final Comparator<Task> BY_ID = Comparator.comparing(Task::getId);
+
+    private final int count;
+    private final PlatformTransactionManager transactionManager;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public TaskShards(ShardingProperties properties, PlatformTransactionManager transactionManager) {
+        this.count = properties.getCount();
+        this.transactionManager = transactionManager;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int shardFor(long id) {
+        return (int) Math.floorMod(id, (long) count);
+    }
+
+    public <T> T onShardOf(long id, Supplier<T> action) {
+        return onShard(shardFor(id), action);
+    }
+
+    // Inside a transaction the first shard bound stays bound until the transaction ends, since inserts and
+    // updates are flushed at commit and the connection is fetched from that shard. Asking for another
+    // shard in the same transaction fails rather than silently running on the first one.
+    public <T> T onShard(int shard, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            ShardBinding binding = (ShardBinding) TransactionSynchronizationManager.getResource(this);
+            if (binding == null) {
+                binding = new ShardBinding(shard);
+                binding.bind();
+                TransactionSynchronizationManager.registerSynchronization(binding);
+            } else if (binding.shard != shard) {
+                throw new IllegalStateException("Transaction is bound to shard " + binding.shard
+                        + " and cannot switch to shard " + shard);
+            }
+            return action.get();
+        }
+        Integer previous = ShardContext.bind(shard);
+        try {
+            return action.get();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    // Runs the query on every shard in parallel, each in its own read-only transaction,
+    // and merges the per-shard results by id.
+    public List<Task> gather(Supplier<List<Task>> query) {
+        if (count == 1) {
+            return query.get();
+        }
+        return mergeById(eachShard(shard -> sortedById(query.get())));
+    }
+
+    // Runs a shard-specific query on every shard in parallel and concatenates the results unordered
+    public <T> List<T> collect(IntFunction<List<T>> query) {
+        if (count == 1) {
+            return query.apply(0);
+        }
+        List<T> collected = new ArrayList<>();
+        eachShard(query).forEach(collected::addAll);
+        return collected;
+    }
+
+    private <T> List<List<T>> eachShard(IntFunction<List<T>> query) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> onShard(target, () -> readOnly.execute(status -> query.apply(target))),
+                    executor));
+        }
+        List<List<T>> results = new ArrayList<>(count);
+        try {
+            for (CompletableFuture<List<T>> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Suspended with its transaction, so a nested REQUIRES_NEW transaction can bind its own shard
+    private final class ShardBinding implements TransactionSynchronization {
+
+        private final int shard;
+        private Integer previous;
+
+        ShardBinding(int shard) {
+            this.shard = shard;
+        }
+
+        void bind() {
+            previous = ShardContext.bind(shard);
+            TransactionSynchronizationManager.bindResource(TaskShards.this, this);
+        }
+
+        void unbind() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TaskShards.this);
+            ShardContext.restore(previous);
+        }
+
+        @Override
+        public void suspend() {
+            unbind();
+        }
+
+        @Override
+        public void resume() {
+            bind();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            unbind();
+        }
+    }
+
+    private static List<Task> sortedById(List<Task> tasks) {
+        List<Task> sorted = new ArrayList<>(tasks);
+        sorted.sort(BY_ID);
+        return sorted;
+    }
+
+    private static List<Task> mergeById(List<List<Task>> sortedShards) {
+        int total = 0;
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Comparator.comparing(Cursor::head, BY_ID));
+        for (List<Task> shard : sortedShards) {
+            total += shard.size();
+            if (!shard.isEmpty()) {
+                heads.add(new Cursor(shard));
+            }
+        }
+        List<Task> merged = new ArrayList<>(total);
+        while (!heads.isEmpty()) {
+            Cursor cursor = heads.poll();
+            merged.add(cursor.head());
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    private static final class Cursor {
+
+        private final List<Task> tasks;
+        private int position;
+
+        Cursor(List<Task> tasks) {
+            this.tasks = tasks;
+        }
+
+        Task head() {
+            return tasks.get(position);
+        }
+
+        boolean advance() {
+            return ++position < tasks.size();
+        }
+    }
+}
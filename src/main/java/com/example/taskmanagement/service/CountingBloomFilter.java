@@ -0,0 +1,100 @@
+package com.example.taskmanagement.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bloom filter over long keys with 4-bit counters instead of bits, so keys can be removed again.
+// Counters that reach 15 stick there: decrementing them could produce false negatives.
+final class CountingBloomFilter {
+
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final long MAX_COUNT = 15;
+
+    private final AtomicLongArray words;
+    private final long counters;
+    private final int hashes;
+
+    CountingBloomFilter(long counters, int hashes) {
+        long words = Math.max(1, (counters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+        this.words = new AtomicLongArray(Math.toIntExact(words));
+        this.counters = words * COUNTERS_PER_WORD;
+        this.hashes = hashes;
+    }
+
+    // Standard sizing for n keys at false-positive rate p, capped at maxCounters
+    static CountingBloomFilter forExpectedKeys(long keys, double falsePositiveRate, long maxCounters) {
+        long n = Math.max(1, keys);
+        long counters = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        counters = Math.min(counters, maxCounters);
+        int hashes = Math.max(1, (int) Math.round((double) counters / n * Math.log(2)));
+        return new CountingBloomFilter(counters, hashes);
+    }
+
+    void add(long key) {
+        long hash1 = mix(key);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashes; i++) {
+            update(index(hash1 + i * hash2), 1);
+        }
+    }
+
+    void remove(long key) {
+        long hash1 = mix(key);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashes; i++) {
+            update(index(hash1 + i * hash2), -1);
+        }
+    }
+
+    boolean mightContain(long key) {
+        long hash1 = mix(key);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashes; i++) {
+            long index = index(hash1 + i * hash2);
+            if (count(words.get((int) (index / COUNTERS_PER_WORD)), index) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Expected false-positive rate for the given number of keys
+    double falsePositiveRate(long keys) {
+        return Math.pow(1 - Math.exp(-(double) hashes * keys / counters), hashes);
+    }
+
+    long sizeInBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    private void update(long index, int delta) {
+        int word = (int) (index / COUNTERS_PER_WORD);
+        int shift = (int) (index % COUNTERS_PER_WORD) * 4;
+        while (true) {
+            long current = words.get(word);
+            long count = (current >>> shift) & MAX_COUNT;
+            if (count == MAX_COUNT || (delta < 0 && count == 0)) {
+                return;
+            }
+            long updated = current + ((long) delta << shift);
+            if (words.compareAndSet(word, current, updated)) {
+                return;
+            }
+        }
+    }
+
+    private static long count(long word, long index) {
+        return (word >>> ((index % COUNTERS_PER_WORD) * 4)) & MAX_COUNT;
+    }
+
+    private long index(long hash) {
+        return Math.floorMod(hash, counters);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long key) {
+        long z = key + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
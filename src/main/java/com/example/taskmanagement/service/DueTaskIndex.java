@@ -0,0 +1,302 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.dto.DueTask;
+import com.example.taskmanagement.model.Task;
+import com.example.taskmanagement.model.TaskStatus;
+import com.example.taskmanagement.repository.TaskRepository;
+import com.example.taskmanagement.repository.TaskShards;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// Open tasks with a due date, ordered by due time and then priority, in one skip list per tenant.
+// A skip list rather than a heap or timer wheel, because /due needs ordered range scans and edits
+// must be O(log n). Rebuilt from every shard on startup, before the web server accepts requests.
+// Entries carry the task's updatedAt, so a snapshot applied late never replaces a newer one.
+@Component
+public class DueTaskIndex implements SmartLifecycle {
+
+    private static final Set<TaskStatus> OPEN_STATUSES = Set.of(TaskStatus.PENDING, TaskStatus.IN_PROGRESS);
+    // Below the web server's start phase, so the index is complete before requests are served
+    private static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    // How long a removal keeps rejecting older snapshots that are applied after it
+    private static final Duration TOMBSTONE_TTL = Duration.ofMinutes(1);
+
+    private final TaskRepository taskRepository;
+    private final TaskShards taskShards;
+    private final ApplicationEventPublisher eventPublisher;
+    private volatile Entries entries = new Entries();
+    private final Cache<Long, LocalDateTime> removedAt = Caffeine.newBuilder()
+            .expireAfterWrite(TOMBSTONE_TTL)
+            .build();
+    // Changes apply under the read lock; a rebuild takes the write lock to begin and to publish
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Changes applied since the running rebuild began, null while none is running
+    private List<Consumer<Entries>> appliedDuringRebuild;
+    // Overdue events have been published for every task due at or before this instant. Guarded by
+    // notifyLock together with the indexing of tasks that are already overdue.
+    private volatile LocalDateTime notifiedUntil = LocalDateTime.now();
+    private final Object notifyLock = new Object();
+    private volatile boolean running;
+
+    public DueTaskIndex(TaskRepository taskRepository, TaskShards taskShards,
+                        ApplicationEventPublisher eventPublisher) {
+        this.taskRepository = taskRepository;
+        this.taskShards = taskShards;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void start() {
+        rebuild();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    // Loads into fresh maps while readers keep using the published ones. Changes applied meanwhile
+    // are replayed into the new maps, where the version checks drop those the scan already saw.
+    public synchronized void rebuild() {
+        List<Consumer<Entries>> applied = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            appliedDuringRebuild = applied;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Entries rebuilt = new Entries();
+        try {
+            taskShards.collect(shard -> taskRepository.findByStatusInAndDueAtIsNotNull(OPEN_STATUSES))
+                    .forEach(task -> rebuilt.update(DueTask.of(task), true));
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (appliedDuringRebuild == applied) {
+                    applied.forEach(change -> change.accept(rebuilt));
+                    entries = rebuilt;
+                }
+                appliedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // Soonest first; equally due tasks in priority order
+    public List<DueTask> dueWithin(String tenant, LocalDateTime from, LocalDateTime to, int limit) {
+        return first(entries.byDueAt(tenant).subMap(DueKey.after(from), false, DueKey.after(to), false), limit);
+    }
+
+    // Most overdue first
+    public List<DueTask> overdue(String tenant, LocalDateTime now, int limit) {
+        return first(entries.byDueAt(tenant).headMap(DueKey.after(now), false), limit);
+    }
+
+    public int size() {
+        return entries.indexedById.size();
+    }
+
+    // Replaces the entry whatever its version, for writers that overwrite rows wholesale like the importer
+    public void update(Task task) {
+        index(DueTask.of(task), false);
+    }
+
+    // Snapshots the task now so later changes to the entity are not picked up. After-commit callbacks
+    // of concurrent updates can run in any order, so a snapshot older than the entry is dropped.
+    public void updateAfterCommit(Task task) {
+        DueTask snapshot = DueTask.of(task);
+        afterCommit(() -> index(snapshot, true));
+    }
+
+    public void removeAfterCommit(Long id) {
+        afterCommit(() -> {
+            LocalDateTime at = LocalDateTime.now();
+            apply(current -> current.remove(id, at));
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.due.notify-interval:PT1S}")
+    public void publishOverdue() {
+        synchronized (notifyLock) {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime since = notifiedUntil;
+            for (ConcurrentSkipListMap<DueKey, DueTask> byDueAt : entries.byTenant.values()) {
+                for (DueTask task : byDueAt.subMap(DueKey.after(since), false, DueKey.after(now), false).values()) {
+                    eventPublisher.publishEvent(new TaskOverdueEvent(task));
+                }
+            }
+            notifiedUntil = now;
+        }
+    }
+
+    // publishOverdue never looks back, so a task created or moved to a due time it has already passed
+    // is announced here. Under notifyLock, each overdue entry is announced by exactly one of the two.
+    private void index(DueTask snapshot, boolean versioned) {
+        if (snapshot.dueAt() == null || !OPEN_STATUSES.contains(snapshot.status())
+                || snapshot.dueAt().isAfter(LocalDateTime.now())) {
+            apply(current -> current.update(snapshot, versioned));
+            return;
+        }
+        synchronized (notifyLock) {
+            DueTask previous = entries.indexedById.get(snapshot.id());
+            apply(current -> current.update(snapshot, versioned));
+            boolean announced = previous != null && !previous.dueAt().isAfter(notifiedUntil);
+            if (!announced && entries.indexedById.get(snapshot.id()) == snapshot
+                    && !snapshot.dueAt().isAfter(notifiedUntil)) {
+                eventPublisher.publishEvent(new TaskOverdueEvent(snapshot));
+            }
+        }
+    }
+
+    private void apply(Consumer<Entries> change) {
+        lock.readLock().lock();
+        try {
+            change.accept(entries);
+            if (appliedDuringRebuild != null) {
+                synchronized (appliedDuringRebuild) {
+                    appliedDuringRebuild.add(change);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean olderThan(DueTask task, LocalDateTime version) {
+        return task.updatedAt() != null && version != null && task.updatedAt().isBefore(version);
+    }
+
+    private final class Entries {
+
+        private final ConcurrentHashMap<String, ConcurrentSkipListMap<DueKey, DueTask>> byTenant =
+                new ConcurrentHashMap<>();
+        // The entry each indexed task was last stored as, which locates it in its tenant's list
+        private final ConcurrentHashMap<Long, DueTask> indexedById = new ConcurrentHashMap<>();
+
+        void update(DueTask task, boolean versioned) {
+            LocalDateTime removed = removedAt.getIfPresent(task.id());
+            if (versioned && removed != null && (task.updatedAt() == null || !task.updatedAt().isAfter(removed))) {
+                return;
+            }
+            indexedById.compute(task.id(), (id, previous) -> {
+                if (versioned && previous != null && olderThan(task, previous.updatedAt())) {
+                    return previous;
+                }
+                if (previous != null) {
+                    unlist(previous);
+                }
+                if (task.dueAt() == null || !OPEN_STATUSES.contains(task.status())) {
+                    if (task.updatedAt() != null) {
+                        removedAt.put(id, task.updatedAt());
+                    }
+                    return null;
+                }
+                byTenant.compute(task.tenantId(), (tenant, byDueAt) -> {
+                    byDueAt = byDueAt != null ? byDueAt : new ConcurrentSkipListMap<>();
+                    byDueAt.put(DueKey.of(task), task);
+                    return byDueAt;
+                });
+                return task;
+            });
+        }
+
+        void remove(Long id, LocalDateTime at) {
+            removedAt.put(id, at);
+            indexedById.computeIfPresent(id, (key, previous) -> {
+                unlist(previous);
+                return null;
+            });
+        }
+
+        NavigableMap<DueKey, DueTask> byDueAt(String tenant) {
+            NavigableMap<DueKey, DueTask> byDueAt = byTenant.get(tenant);
+            return byDueAt != null ? byDueAt : Collections.emptyNavigableMap();
+        }
+
+        // Drops the tenant's list with its last task, so tenants without due tasks hold no memory
+        private void unlist(DueTask task) {
+            byTenant.computeIfPresent(task.tenantId(), (tenant, byDueAt) -> {
+                byDueAt.remove(DueKey.of(task));
+                return byDueAt.isEmpty() ? null : byDueAt;
+            });
+        }
+    }
+
+    private static List<DueTask> first(NavigableMap<DueKey, DueTask> range, int limit) {
+        List<DueTask> tasks = new ArrayList<>(Math.min(limit, 64));
+        for (DueTask task : range.values()) {
+            if (tasks.size() == limit) {
+                break;
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record DueKey(LocalDateTime dueAt, int priorityRank, long id) implements Comparable<DueKey> {
+
+        private static final Comparator<DueKey> ORDER = Comparator.comparing(DueKey::dueAt)
+                .thenComparingInt(DueKey::priorityRank)
+                .thenComparingLong(DueKey::id);
+
+        static DueKey of(DueTask task) {
+            return new DueKey(task.dueAt(), -task.priority().ordinal(), task.id());
+        }
+
+        // Sorts after every task due at the given time
+        static DueKey after(LocalDateTime dueAt) {
+            return new DueKey(dueAt, Integer.MAX_VALUE, Long.MAX_VALUE);
+        }
+
+        @Override
+        public int compareTo(DueKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.config.SingleFlightProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Lets concurrent identical reads share one database query. A caller only joins a query that
+// started after the last committed mutation, so nobody receives data older than a write they
+// could have observed completing.
+@Component
+public class SingleFlight {
+
+    private final ConcurrentHashMap<Object, Flight> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final boolean enabled;
+    private final long maxWaitNanos;
+    private final Counter leaders;
+    private final Counter coalesced;
+    private final Counter timeouts;
+
+    public SingleFlight(SingleFlightProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+        this.leaders = meterRegistry.counter("tasks.singleflight.calls", "role", "leader");
+        this.coalesced = meterRegistry.counter("tasks.singleflight.calls", "role", "coalesced");
+        this.timeouts = meterRegistry.counter("tasks.singleflight.calls", "role", "timeout");
+    }
+
+    public <T> T execute(Object key, Supplier<T> query) {
+        if (!enabled) {
+            return query.get();
+        }
+        Flight flight = new Flight(generation.get());
+        while (true) {
+            Flight existing = inFlight.putIfAbsent(key, flight);
+            if (existing == null) {
+                return lead(key, flight, query);
+            }
+            if (existing.generation == flight.generation) {
+                return follow(existing, query);
+            }
+            // Started before the latest mutation, so its result may already be stale
+            if (inFlight.replace(key, existing, flight)) {
+                return lead(key, flight, query);
+            }
+        }
+    }
+
+    // Called by mutations: reads started before the surrounding transaction commits are no longer shared.
+    // Runs ahead of other after-commit work, so whatever that publishes cannot be answered from an old query.
+    public void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                }
+
+                @Override
+                public int getOrder() {
+                    return Ordered.HIGHEST_PRECEDENCE;
+                }
+            });
+        } else {
+            generation.incrementAndGet();
+        }
+    }
+
+    private <T> T lead(Object key, Flight flight, Supplier<T> query) {
+        leaders.increment();
+        try {
+            T result = query.get();
+            flight.result.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T follow(Flight flight, Supplier<T> query) {
+        try {
+            T result = (T) flight.result.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+            coalesced.increment();
+            return result;
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return query.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Shared query failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shared query", e);
+        }
+    }
+
+    private static final class Flight {
+
+        private final long generation;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        Flight(long generation) {
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.model.ArchivedTask;
+import com.example.taskmanagement.model.Task;
+import com.example.taskmanagement.model.TaskStatus;
+import com.example.taskmanagement.repository.ArchivedTaskRepository;
+import com.example.taskmanagement.repository.TaskRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Moves tasks between the live table and the archive of the current shard. Callers bind the
+// shard and own the transaction, so a move is always a single-shard atomic insert + delete.
+@Component
+public class TaskArchive {
+
+    public static final List<TaskStatus> TERMINAL_STATUSES = List.of(TaskStatus.COMPLETED, TaskStatus.CANCELLED);
+
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final ObjectMapper objectMapper;
+
+    public TaskArchive(TaskRepository taskRepository, ArchivedTaskRepository archivedTaskRepository,
+                       ObjectMapper objectMapper) {
+        this.taskRepository = taskRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public Optional<Task> find(Long id) {
+        return archivedTaskRepository.findById(id).map(this::decode);
+    }
+
+    public List<Task> findAll(Collection<Long> ids) {
+        return archivedTaskRepository.findAllById(ids).stream().map(this::decode).toList();
+    }
+
+    public List<Task> search(String tenantId, String title) {
+        return archivedTaskRepository.findByTenantIdAndTitleContainingIgnoreCase(tenantId, title).stream()
+                .map(this::decode)
+                .toList();
+    }
+
+    public List<Task> archiveOlderThan(LocalDateTime cutoff, int limit) {
+        List<Task> candidates = taskRepository.findByStatusInAndUpdatedAtBefore(
+                TERMINAL_STATUSES, cutoff, PageRequest.of(0, limit, Sort.by("id")));
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        archivedTaskRepository.saveAll(candidates.stream()
+                .map(task -> new ArchivedTask(task.getId(), task.getTenantId(), task.getTitle(), task.getStatus(), now,
+                        encode(task)))
+                .toList());
+        taskRepository.deleteAll(candidates);
+        return candidates;
+    }
+
+    // Removes an archived task of the tenant for good and returns what it held
+    public Optional<Task> delete(Long id, String tenantId) {
+        return archivedTaskRepository.findById(id).filter(archived -> archived.getTenantId().equals(tenantId)).map(archived -> {
+            archivedTaskRepository.delete(archived);
+            return decode(archived);
+        });
+    }
+
+    public Optional<Task> restore(Long id, String tenantId) {
+        return archivedTaskRepository.findById(id).filter(archived -> archived.getTenantId().equals(tenantId)).map(archived -> {
+            Task task = decode(archived);
+            archivedTaskRepository.delete(archived);
+            return taskRepository.save(task);
+        });
+    }
+
+    private byte[] encode(Task task) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, task);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not archive task " + task.getId(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // The tenant is not part of the JSON payload, it comes from the archive row
+    private Task decode(ArchivedTask archived) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(archived.getPayload()))) {
+            Task task = objectMapper.readValue(in, Task.class);
+            task.setTenantId(archived.getTenantId());
+            return task;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archived task " + archived.getId(), e);
+        }
+    }
+}
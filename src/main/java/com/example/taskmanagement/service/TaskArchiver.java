@@ -0,0 +1,124 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.audit.AuditAction;
+import com.example.taskmanagement.audit.AuditLog;
+import com.example.taskmanagement.config.ArchiveProperties;
+import com.example.taskmanagement.model.Task;
+import com.example.taskmanagement.repository.TaskShards;
+import com.example.taskmanagement.tenant.TenantQuotas;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+// Background job moving old terminal tasks to the archive, shard by shard, in small
+// transactions separated by a pause. Runs on its own thread, so its pauses never hold up the
+// other jobs on the shared scheduler thread.
+@Component
+public class TaskArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskArchiver.class);
+
+    private final ArchiveProperties properties;
+    private final TaskArchive taskArchive;
+    private final TaskShards taskShards;
+    private final AuditLog auditLog;
+    private final SingleFlight singleFlight;
+    private final TenantQuotas tenantQuotas;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter archived;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("task-archiver").daemon().factory());
+    private final AtomicBoolean runScheduled = new AtomicBoolean();
+
+    public TaskArchiver(ArchiveProperties properties, TaskArchive taskArchive, TaskShards taskShards,
+                        AuditLog auditLog, SingleFlight singleFlight, TenantQuotas tenantQuotas,
+                        PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.taskArchive = taskArchive;
+        this.taskShards = taskShards;
+        this.auditLog = auditLog;
+        this.singleFlight = singleFlight;
+        this.tenantQuotas = tenantQuotas;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archived = meterRegistry.counter("tasks.archive.moved");
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.archive.interval:PT5M}", initialDelayString = "${tasks.archive.initial-delay:PT1M}")
+    public void scheduledRun() {
+        if (properties.isEnabled() && runScheduled.compareAndSet(false, true)) {
+            runner.execute(() -> {
+                try {
+                    archiveNow();
+                } catch (RuntimeException e) {
+                    log.error("Archiving run failed", e);
+                } finally {
+                    runScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    // Interrupts the pause of a running batch loop, which then stops
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+    }
+
+    public int archiveNow() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getMinAge());
+        int total = 0;
+        for (int shard = 0; shard < taskShards.count(); shard++) {
+            for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+                int moved = archiveBatch(shard, cutoff);
+                total += moved;
+                if (moved < properties.getBatchSize() || !pause()) {
+                    break;
+                }
+            }
+        }
+        return total;
+    }
+
+    private int archiveBatch(int shard, LocalDateTime cutoff) {
+        Integer moved = taskShards.onShard(shard, () -> transactionTemplate.execute(status -> {
+            List<Task> tasks = taskArchive.archiveOlderThan(cutoff, properties.getBatchSize());
+            for (Task task : tasks) {
+                auditLog.record(AuditAction.ARCHIVE, task.getId(), task.getStatus(), task.getStatus());
+            }
+            if (!tasks.isEmpty()) {
+                singleFlight.invalidateAfterCommit();
+            }
+            // Archived tasks no longer count against their tenant's task quota
+            Map<String, Long> byTenant = tasks.stream()
+                    .collect(Collectors.groupingBy(Task::getTenantId, Collectors.counting()));
+            byTenant.forEach(tenantQuotas::releaseTasksAfterCommit);
+            return tasks.size();
+        }));
+        archived.increment(moved);
+        return moved;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getPause());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.config.TaskIdFilterProperties;
+import com.example.taskmanagement.repository.ShardDataSources;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Membership filter over the ids of live and archived tasks, so lookups of ids that never existed
+// are answered without a query. Ids are added before their insert commits (TaskIdListener, bulk import)
+// and removed only after a delete commits, which keeps the filter free of false negatives.
+// A rebuild scans the tables while writes go on, so ids added or committed during the scan are
+// logged and replayed into the new filter before it replaces the old one.
+@Component
+public class TaskIdFilter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskIdFilter.class);
+    private static final List<String> ID_TABLES = List.of("tasks", "archived_tasks");
+    // Below the web server's start phase, so the first rebuild completes before requests are served
+    private static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+
+    private final TaskIdFilterProperties properties;
+    private final ShardDataSources shardDataSources;
+    private final AtomicLong keys = new AtomicLong();
+    private final Counter avoided;
+    private final Counter queried;
+    private final Counter falsePositives;
+    // Null until the first rebuild, and then every id is treated as possibly present
+    private volatile CountingBloomFilter filter;
+    private volatile boolean running;
+    // Adds record under the read lock; a rebuild takes the write lock to begin and to publish
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Moves each time a rebuild begins scanning
+    private volatile long generation;
+    // Ids added since the running rebuild began, null while none is running
+    private List<Long> addedDuringRebuild;
+
+    public TaskIdFilter(TaskIdFilterProperties properties, ShardDataSources shardDataSources,
+                        MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.shardDataSources = shardDataSources;
+        this.avoided = meterRegistry.counter("tasks.idfilter.lookups", "result", "avoided");
+        this.queried = meterRegistry.counter("tasks.idfilter.lookups", "result", "queried");
+        this.falsePositives = meterRegistry.counter("tasks.idfilter.false.positives");
+        Gauge.builder("tasks.idfilter.memory", this, TaskIdFilter::sizeInBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("tasks.idfilter.expected.fpp", this, TaskIdFilter::expectedFalsePositiveRate)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (properties.isEnabled()) {
+            rebuild();
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    // Removes that commit during the scan are not replayed; the id at worst stays a false positive.
+    // Ids recorded both by the scan and the log are counted twice, with the same effect.
+    public synchronized void rebuild() {
+        List<Long> added = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            addedDuringRebuild = added;
+            generation++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Scan scan;
+        try {
+            scan = scan();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                addedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        publish(scan, added);
+    }
+
+    private Scan scan() {
+        long existing = 0;
+        for (JdbcTemplate shard : shards()) {
+            for (String table : ID_TABLES) {
+                Long rows = shard.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+                existing += rows != null ? rows : 0;
+            }
+        }
+        long expected = Math.max(properties.getExpectedTasks(), 2 * existing);
+        long maxCounters = properties.getMaxMemory().toBytes() * 2;
+        CountingBloomFilter rebuilt = CountingBloomFilter.forExpectedKeys(
+                expected, properties.getFalsePositiveRate(), maxCounters);
+        AtomicLong scanned = new AtomicLong();
+        for (JdbcTemplate shard : shards()) {
+            for (String table : ID_TABLES) {
+                shard.query("SELECT id FROM " + table, resultSet -> {
+                    rebuilt.add(resultSet.getLong(1));
+                    scanned.incrementAndGet();
+                });
+            }
+        }
+        return new Scan(rebuilt, scanned.get());
+    }
+
+    // The key count restarts from what the new filter holds, adds to the old one no longer matter
+    private void publish(Scan scan, List<Long> added) {
+        long held;
+        lock.writeLock().lock();
+        try {
+            for (Long id : added) {
+                scan.filter().add(id);
+            }
+            held = scan.ids() + added.size();
+            keys.set(held);
+            filter = scan.filter();
+            addedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Task id filter holds {} ids in {} bytes, expected false-positive rate {}",
+                held, scan.filter().sizeInBytes(), scan.filter().falsePositiveRate(held));
+    }
+
+    public boolean mightContain(long id) {
+        CountingBloomFilter current = filter;
+        if (current == null) {
+            return true;
+        }
+        boolean maybe = current.mightContain(id);
+        (maybe ? queried : avoided).increment();
+        return maybe;
+    }
+
+    // Must run before the insert commits, so concurrent lookups never miss a committed task. An insert
+    // that commits after a rebuild began may have been missed by its scan, so it is recorded again.
+    // Returns the generation the id was added in, for writers that commit outside Spring transactions.
+    public long add(long id) {
+        long addedIn = record(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addIfRebuiltSince(addedIn, List.of(id));
+                }
+            });
+        }
+        return addedIn;
+    }
+
+    // Called once the ids added in the given generation have committed
+    public void addIfRebuiltSince(long addedIn, Collection<Long> ids) {
+        if (generation != addedIn) {
+            for (Long id : ids) {
+                record(id);
+            }
+        }
+    }
+
+    private long record(long id) {
+        lock.readLock().lock();
+        try {
+            CountingBloomFilter current = filter;
+            if (current != null) {
+                current.add(id);
+                keys.incrementAndGet();
+            }
+            if (addedDuringRebuild != null) {
+                synchronized (addedDuringRebuild) {
+                    addedDuringRebuild.add(id);
+                }
+            }
+            return generation;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void removeAfterCommit(long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(id);
+                }
+            });
+        } else {
+            remove(id);
+        }
+    }
+
+    // A lookup the filter let through found nothing
+    public void recordMiss() {
+        if (filter != null) {
+            falsePositives.increment();
+        }
+    }
+
+    private void remove(long id) {
+        CountingBloomFilter current = filter;
+        if (current != null) {
+            current.remove(id);
+            keys.decrementAndGet();
+        }
+    }
+
+    private record Scan(CountingBloomFilter filter, long ids) {
+    }
+
+    private List<JdbcTemplate> shards() {
+        return shardDataSources.all().stream().map(JdbcTemplate::new).toList();
+    }
+
+    private double sizeInBytes() {
+        CountingBloomFilter current = filter;
+        return current != null ? current.sizeInBytes() : 0;
+    }
+
+    private double expectedFalsePositiveRate() {
+        CountingBloomFilter current = filter;
+        return current != null ? current.falsePositiveRate(keys.get()) : 1;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.dto.DueTask;
+
+// Published once when an open task's due time passes
+public record TaskOverdueEvent(DueTask task) {
+}
@@ -1,54 +1,185 @@
 package com.example.taskmanagement.service;
 
+import com.example.taskmanagement.audit.AuditAction;
+import com.example.taskmanagement.audit.AuditLog;
+import com.example.taskmanagement.config.BatchLookupProperties;
+import com.example.taskmanagement.dto.DueTask;
+import com.example.taskmanagement.dto.TaskLookupResult;
 import com.example.taskmanagement.dto.TaskUpdateDTO;
 import com.example.taskmanagement.model.Task;
+import com.example.taskmanagement.model.TaskPriority;
 import com.example.taskmanagement.model.TaskStatus;
+import com.example.taskmanagement.repository.TaskIdAllocator;
 import com.example.taskmanagement.repository.TaskRepository;
+import com.example.taskmanagement.repository.TaskShards;
+import com.example.taskmanagement.tenant.TenantContext;
+import com.example.taskmanagement.tenant.TenantQuotas;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class TaskService {
 
     private final TaskRepository taskRepository;
+    private final TaskShards taskShards;
+    private final TaskIdAllocator taskIdAllocator;
+    private final AuditLog auditLog;
+    private final SingleFlight singleFlight;
+    private final BatchLookupProperties batchLookupProperties;
+    private final TaskArchive taskArchive;
+    private final DueTaskIndex dueTaskIndex;
+    private final TaskIdFilter taskIdFilter;
+    private final TaskVersions taskVersions;
+    private final TenantQuotas tenantQuotas;
 
     @Autowired
-    public TaskService(TaskRepository taskRepository) {
+    public TaskService(TaskRepository taskRepository, TaskShards taskShards, TaskIdAllocator taskIdAllocator,
+                       AuditLog auditLog, SingleFlight singleFlight, BatchLookupProperties batchLookupProperties,
+                       TaskArchive taskArchive, DueTaskIndex dueTaskIndex, TaskIdFilter taskIdFilter,
+                       TaskVersions taskVersions, TenantQuotas tenantQuotas) {
         this.taskRepository = taskRepository;
+        this.taskShards = taskShards;
+        this.taskIdAllocator = taskIdAllocator;
+        this.auditLog = auditLog;
+        this.singleFlight = singleFlight;
+        this.batchLookupProperties = batchLookupProperties;
+        this.taskArchive = taskArchive;
+        this.dueTaskIndex = dueTaskIndex;
+        this.taskIdFilter = taskIdFilter;
+        this.taskVersions = taskVersions;
+        this.tenantQuotas = tenantQuotas;
     }
 
     public List<Task> getAllTasks() {
-        return taskRepository.findAll();
+        String tenant = TenantContext.current();
+        return taskShards.gather(() -> taskRepository.findByTenantId(tenant));
     }
 
+    // Falls through to the archive for tasks that have been moved out of the live table.
+    // Tasks of other tenants are reported as missing, like ids that do not exist. Coalesced callers
+    // share what the leader loaded, so it is copied out of the leader's persistence context and each
+    // caller gets a copy of its own.
     public Optional<Task> getTaskById(@NonNull Long id) {
-        return taskRepository.findById(id);
+        if (!taskIdFilter.mightContain(id)) {
+            return Optional.empty();
+        }
+        String tenant = TenantContext.current();
+        Optional<Task> task = singleFlight.execute(new Lookup(tenant, "id", id),
+                        () -> taskShards.onShardOf(id,
+                                () -> taskRepository.findById(id).or(() -> taskArchive.find(id)).map(Task::new)))
+                .filter(found -> tenant.equals(found.getTenantId()))
+                .map(Task::new);
+        if (task.isEmpty()) {
+            taskIdFilter.recordMiss();
+        }
+        return task;
+    }
+
+    // Returns the tasks in request order, listing ids that do not exist separately. Archived tasks are
+    // found too, as by getTaskById.
+    public TaskLookupResult getTasksByIds(@NonNull Collection<Long> ids) {
+        String tenant = TenantContext.current();
+        List<Long> requested = List.copyOf(new LinkedHashSet<>(ids));
+        Map<Integer, List<Long>> idsByShard = requested.stream()
+                .filter(taskIdFilter::mightContain)
+                .collect(Collectors.groupingBy(taskShards::shardFor));
+        Map<Long, Task> found = new HashMap<>();
+        for (Task task : taskShards.collect(shard -> findInChunks(idsByShard.getOrDefault(shard, List.of())))) {
+            if (tenant.equals(task.getTenantId())) {
+                found.put(task.getId(), task);
+            }
+        }
+
+        List<Task> tasks = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            Task task = found.get(id);
+            if (task != null) {
+                tasks.add(task);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new TaskLookupResult(tasks, missing);
     }
 
+    // Coalesced callers share the same list instance, so it is handed out unmodifiable and holds
+    // detached copies rather than the leader's entities
     public List<Task> getTasksByStatus(@NonNull TaskStatus status) {
-        return taskRepository.findByStatus(status);
+        String tenant = TenantContext.current();
+        return singleFlight.execute(new Lookup(tenant, "status", status),
+                () -> detached(taskShards.gather(() -> taskRepository.findByTenantIdAndStatus(tenant, status))));
     }
 
     public List<Task> searchTasksByTitle(@NonNull String title) {
-        return taskRepository.findByTitleContainingIgnoreCase(title);
+        String tenant = TenantContext.current();
+        return singleFlight.execute(new Lookup(tenant, "title", title),
+                () -> detached(taskShards.gather(
+                        () -> taskRepository.findByTenantIdAndTitleContainingIgnoreCase(tenant, title))));
+    }
+
+    private static List<Task> detached(List<Task> tasks) {
+        return tasks.stream().map(Task::new).toList();
+    }
+
+    public List<Task> searchArchivedTasks(@NonNull String title) {
+        String tenant = TenantContext.current();
+        return taskShards.gather(() -> taskArchive.search(tenant, title));
+    }
+
+    // Served from the in-memory index, the tasks table is not queried
+    public List<DueTask> getTasksDueWithin(@NonNull Duration within, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return dueTaskIndex.dueWithin(TenantContext.current(), now, now.plus(within), limit);
+    }
+
+    public List<DueTask> getOverdueTasks(int limit) {
+        return dueTaskIndex.overdue(TenantContext.current(), LocalDateTime.now(), limit);
     }
 
     public Task createTask(@NonNull Task task) {
+        String tenant = TenantContext.current();
+        tenantQuotas.reserveTasks(tenant, 1);
+        tenantQuotas.releaseTasksOnRollback(tenant, 1);
         if (task.getStatus() == null) {
             task.setStatus(TaskStatus.PENDING);
         }
-        return taskRepository.save(task);
+        if (task.getPriority() == null) {
+            task.setPriority(TaskPriority.MEDIUM);
+        }
+        task.setId(taskIdAllocator.nextId());
+        task.setCreatedAt(null);
+        task.setTenantId(tenant);
+        Task created = taskShards.onShardOf(task.getId(), () -> taskRepository.save(task));
+        auditLog.record(AuditAction.CREATE, created.getId(), null, created.getStatus());
+        singleFlight.invalidateAfterCommit();
+        dueTaskIndex.updateAfterCommit(created);
+        return created;
     }
 
     public Optional<Task> updateTask(@NonNull Long id, @NonNull TaskUpdateDTO taskDetails) {
-        return taskRepository.findById(id).map(task -> {
+        if (!taskIdFilter.mightContain(id)) {
+            return Optional.empty();
+        }
+        String tenant = TenantContext.current();
+        return taskShards.onShardOf(id, () -> findOwned(id, tenant).map(task -> {
+            TaskStatus previousStatus = task.getStatus();
             if (taskDetails.getTitle() != null) {
                 task.setTitle(taskDetails.getTitle());
             }
@@ -58,15 +189,88 @@ public class TaskService {
             if (taskDetails.getStatus() != null) {
                 task.setStatus(taskDetails.getStatus());
             }
-            return taskRepository.save(Objects.requireNonNull(task));
-        });
+            if (taskDetails.getPriority() != null) {
+                task.setPriority(taskDetails.getPriority());
+            }
+            if (taskDetails.getDueAt() != null) {
+                task.setDueAt(taskDetails.getDueAt());
+            }
+            Task updated = taskRepository.save(Objects.requireNonNull(task));
+            // Sets updatedAt, which orders the due index snapshots of concurrent updates
+            taskRepository.flush();
+            auditLog.record(AuditAction.UPDATE, id, previousStatus, updated.getStatus());
+            singleFlight.invalidateAfterCommit();
+            if (previousStatus != updated.getStatus()) {
+                taskVersions.bumpAfterCommit(tenant, previousStatus);
+            }
+            dueTaskIndex.updateAfterCommit(updated);
+            return updated;
+        }));
     }
 
+    // Archived tasks can be deleted too; they no longer count against the quota
     public boolean deleteTask(@NonNull Long id) {
-        if (taskRepository.findById(id).isPresent()) {
-            taskRepository.deleteById(id);
+        if (!taskIdFilter.mightContain(id)) {
+            return false;
+        }
+        String tenant = TenantContext.current();
+        return taskShards.onShardOf(id, () -> {
+            Optional<Task> existing = findOwned(id, tenant);
+            if (existing.isPresent()) {
+                taskRepository.deleteById(id);
+                dueTaskIndex.removeAfterCommit(id);
+                tenantQuotas.releaseTasksAfterCommit(tenant, 1);
+            } else {
+                existing = taskArchive.delete(id, tenant);
+                if (existing.isEmpty()) {
+                    return false;
+                }
+            }
+            auditLog.record(AuditAction.DELETE, id, existing.get().getStatus(), null);
+            singleFlight.invalidateAfterCommit();
+            taskIdFilter.removeAfterCommit(id);
             return true;
+        });
+    }
+
+    public Optional<Task> restoreTask(@NonNull Long id) {
+        if (!taskIdFilter.mightContain(id)) {
+            return Optional.empty();
         }
-        return false;
+        String tenant = TenantContext.current();
+        tenantQuotas.reserveTasks(tenant, 1);
+        tenantQuotas.releaseTasksOnRollback(tenant, 1);
+        Optional<Task> restored = taskShards.onShardOf(id, () -> taskArchive.restore(id, tenant).map(task -> {
+            auditLog.record(AuditAction.RESTORE, id, task.getStatus(), task.getStatus());
+            singleFlight.invalidateAfterCommit();
+            dueTaskIndex.updateAfterCommit(task);
+            return task;
+        }));
+        if (restored.isEmpty()) {
+            tenantQuotas.releaseTasksAfterCommit(tenant, 1);
+        }
+        return restored;
+    }
+
+    private Optional<Task> findOwned(Long id, String tenant) {
+        return taskRepository.findById(id).filter(task -> tenant.equals(task.getTenantId()));
+    }
+
+    private List<Task> findInChunks(List<Long> ids) {
+        int chunkSize = batchLookupProperties.getChunkSize();
+        List<Task> found = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + chunkSize));
+            List<Task> live = taskRepository.findAllById(chunk);
+            found.addAll(live);
+            if (live.size() < chunk.size()) {
+                Set<Long> liveIds = live.stream().map(Task::getId).collect(Collectors.toSet());
+                found.addAll(taskArchive.findAll(chunk.stream().filter(id -> !liveIds.contains(id)).toList()));
+            }
+        }
+        return found;
+    }
+
+    private record Lookup(String tenant, String query, Object argument) {
     }
 }
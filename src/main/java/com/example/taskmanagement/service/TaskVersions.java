@@ -0,0 +1,88 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.config.TenancyProperties;
+import com.example.taskmanagement.model.TaskStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Data versions for cached list responses, per tenant: one per status for the status lists, and a
+// global one that moves on every mutation. TaskVersionListener bumps them for every JPA write. Readers
+// take the version before they query, so a response is never older than the version it is stored under.
+// Idle tenants are evicted; every version is drawn from one clock, so a tenant that comes back never
+// reuses a version a cached response may still be stored under.
+@Component
+public class TaskVersions {
+
+    private static final long MAX_TRACKED_TENANTS = 100_000;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final Cache<String, Versions> byTenant;
+
+    public TaskVersions(TenancyProperties properties) {
+        this.byTenant = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getIdleTimeout())
+                .maximumSize(MAX_TRACKED_TENANTS)
+                .build();
+    }
+
+    public long global(String tenant) {
+        return versions(tenant).global.get();
+    }
+
+    public long of(String tenant, TaskStatus status) {
+        return versions(tenant).byStatus.get(status.ordinal());
+    }
+
+    // Runs after SingleFlight's invalidation: once a reader sees the new version it can no longer
+    // join a query that started before the commit
+    public void bumpAfterCommit(String tenant, TaskStatus... statuses) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(tenant, statuses);
+                }
+            });
+        } else {
+            bump(tenant, statuses);
+        }
+    }
+
+    public void bumpAll(String tenant) {
+        bump(tenant, TaskStatus.values());
+    }
+
+    private void bump(String tenant, TaskStatus... statuses) {
+        Versions versions = versions(tenant);
+        long version = clock.incrementAndGet();
+        for (TaskStatus status : statuses) {
+            if (status != null) {
+                versions.byStatus.accumulateAndGet(status.ordinal(), version, Math::max);
+            }
+        }
+        versions.global.accumulateAndGet(version, Math::max);
+    }
+
+    private Versions versions(String tenant) {
+        return byTenant.get(tenant, key -> new Versions(clock.incrementAndGet()));
+    }
+
+    private static final class Versions {
+
+        private final AtomicLong global;
+        private final AtomicLongArray byStatus = new AtomicLongArray(TaskStatus.values().length);
+
+        Versions(long start) {
+            global = new AtomicLong(start);
+            for (int i = 0; i < byStatus.length(); i++) {
+                byStatus.set(i, start);
+            }
+        }
+    }
+}
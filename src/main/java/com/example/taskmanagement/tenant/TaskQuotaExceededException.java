@@ -0,0 +1,12 @@
+package com.example.taskmanagement.tenant;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.FORBIDDEN)
+public class TaskQuotaExceededException extends RuntimeException {
+
+    public TaskQuotaExceededException(String tenant, long maxTasks) {
+        super("Tenant " + tenant + " has reached its quota of " + maxTasks + " tasks");
+    }
+}
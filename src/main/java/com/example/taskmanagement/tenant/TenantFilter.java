@@ -0,0 +1,59 @@
+package com.example.taskmanagement.tenant;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+// Binds the tenant named in the request header for the rest of the request and holds one of the
+// tenant's request slots while it runs, so a busy tenant queues behind itself rather than everyone.
+public class TenantFilter extends OncePerRequestFilter {
+
+    private static final Pattern TENANT = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_.-]{0,63}");
+
+    private final String header;
+    private final TenantQuotas tenantQuotas;
+
+    public TenantFilter(String header, TenantQuotas tenantQuotas) {
+        this.header = header;
+        this.tenantQuotas = tenantQuotas;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String tenant = request.getHeader(header);
+        if (tenant == null) {
+            tenant = TenantContext.DEFAULT_TENANT;
+        } else if (!TENANT.matcher(tenant).matches()) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid " + header);
+            return;
+        }
+
+        TenantQuotas.Slot slot;
+        try {
+            slot = tenantQuotas.tryEnter(tenant);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            slot = null;
+        }
+        if (slot == null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many concurrent requests for tenant " + tenant);
+            return;
+        }
+        String previous = TenantContext.bind(tenant);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TenantContext.restore(previous);
+            slot.release();
+        }
+    }
+}
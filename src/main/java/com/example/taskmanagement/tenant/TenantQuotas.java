@@ -0,0 +1,219 @@
+package com.example.taskmanagement.tenant;
+
+import com.example.taskmanagement.config.TenancyProperties;
+import com.example.taskmanagement.repository.TaskRepository;
+import com.example.taskmanagement.repository.TaskShards;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-tenant limits on requests in flight and on live tasks. Task counts come from a count over the
+// tenant's index range and are kept in memory between refreshes, so the row quota is a soft limit:
+// rows written outside these counts, such as imported rows whose id the id filter could not rule out,
+// only show up at the next refresh.
+// Both are kept only for tenants seen recently, so unknown tenant names cannot grow them without bound.
+// A tenant's semaphore is pinned while any of its permits is held: dropping it then would hand the
+// tenant's next requests a fresh semaphore and let it exceed its limit.
+@Component
+public class TenantQuotas {
+
+    private static final long MAX_TRACKED_TENANTS = 100_000;
+
+    private final TenancyProperties properties;
+    private final TaskRepository taskRepository;
+    private final TaskShards taskShards;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, Permits> slots;
+    private final Cache<String, AtomicLong> taskCounts;
+
+    public TenantQuotas(TenancyProperties properties, TaskRepository taskRepository, TaskShards taskShards,
+                        MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.taskRepository = taskRepository;
+        this.taskShards = taskShards;
+        this.meterRegistry = meterRegistry;
+        this.slots = Caffeine.newBuilder()
+                .expireAfter(new IdleExpiry(properties.getIdleTimeout().toNanos()))
+                .maximumWeight(MAX_TRACKED_TENANTS)
+                .weigher((String tenant, Permits permits) -> permits.inUse() ? 0 : 1)
+                .build();
+        this.taskCounts = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getCountRefresh())
+                .maximumSize(MAX_TRACKED_TENANTS)
+                .build();
+    }
+
+    // Null when the tenant still has no free slot after tasks.tenancy.max-wait
+    public Slot tryEnter(String tenant) throws InterruptedException {
+        int limit = maxConcurrentRequests(tenant);
+        if (limit <= 0) {
+            return Slot.UNLIMITED;
+        }
+        long deadline = System.nanoTime() + properties.getMaxWait().toNanos();
+        while (true) {
+            Permits permits = slots.get(tenant, key -> new Permits(limit));
+            if (!permits.semaphore.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                reject(tenant, "concurrency");
+                return null;
+            }
+            // Pins the entry, unless it was evicted while this request waited; then the permit is
+            // given back and taken from the entry that replaced it
+            if (reweigh(tenant, permits)) {
+                return new Slot(this, tenant, permits);
+            }
+            permits.semaphore.release();
+        }
+    }
+
+    // Counts the tasks against the tenant's quota, or throws without counting any of them
+    public void reserveTasks(String tenant, long tasks) {
+        long maxTasks = maxTasks(tenant);
+        if (maxTasks <= 0) {
+            return;
+        }
+        AtomicLong count = taskCounts.get(tenant, this::countTasks);
+        long current;
+        do {
+            current = count.get();
+            if (current + tasks > maxTasks) {
+                reject(tenant, "tasks");
+                throw new TaskQuotaExceededException(tenant, maxTasks);
+            }
+        } while (!count.compareAndSet(current, current + tasks));
+    }
+
+    // How many more tasks the tenant may create right now
+    public long remainingTasks(String tenant) {
+        long maxTasks = maxTasks(tenant);
+        if (maxTasks <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, maxTasks - taskCounts.get(tenant, this::countTasks).get());
+    }
+
+    public void releaseTasksAfterCommit(String tenant, long tasks) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    releaseTasks(tenant, tasks);
+                }
+            });
+        } else {
+            releaseTasks(tenant, tasks);
+        }
+    }
+
+    // Gives a reservation back if the transaction that made it does not commit
+    public void releaseTasksOnRollback(String tenant, long tasks) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        releaseTasks(tenant, tasks);
+                    }
+                }
+            });
+        }
+    }
+
+    private void releaseTasks(String tenant, long tasks) {
+        AtomicLong count = taskCounts.getIfPresent(tenant);
+        if (count != null) {
+            count.updateAndGet(current -> Math.max(0, current - tasks));
+        }
+    }
+
+    private AtomicLong countTasks(String tenant) {
+        List<Long> counts = taskShards.collect(shard -> List.of(taskRepository.countByTenantId(tenant)));
+        return new AtomicLong(counts.stream().mapToLong(Long::longValue).sum());
+    }
+
+    // Recomputes the entry's weight and expiry from the permits now held
+    private boolean reweigh(String tenant, Permits permits) {
+        return slots.asMap().computeIfPresent(tenant, (key, current) -> current) == permits;
+    }
+
+    private int maxConcurrentRequests(String tenant) {
+        TenancyProperties.Quota quota = properties.getQuotas().get(tenant);
+        return quota != null && quota.getMaxConcurrentRequests() != null
+                ? quota.getMaxConcurrentRequests() : properties.getMaxConcurrentRequests();
+    }
+
+    private long maxTasks(String tenant) {
+        TenancyProperties.Quota quota = properties.getQuotas().get(tenant);
+        return quota != null && quota.getMaxTasks() != null ? quota.getMaxTasks() : properties.getMaxTasks();
+    }
+
+    // Only tenants with configured quotas get their own series; the rest share one
+    private void reject(String tenant, String limit) {
+        String tag = properties.getQuotas().containsKey(tenant) ? tenant : "other";
+        meterRegistry.counter("tasks.tenancy.rejections", "tenant", tag, "limit", limit).increment();
+    }
+
+    public static final class Slot {
+
+        private static final Slot UNLIMITED = new Slot(null, null, null);
+
+        private final TenantQuotas quotas;
+        private final String tenant;
+        private final Permits permits;
+
+        private Slot(TenantQuotas quotas, String tenant, Permits permits) {
+            this.quotas = quotas;
+            this.tenant = tenant;
+            this.permits = permits;
+        }
+
+        public void release() {
+            if (permits != null) {
+                permits.semaphore.release();
+                quotas.reweigh(tenant, permits);
+            }
+        }
+    }
+
+    private static final class Permits {
+
+        private final int limit;
+        private final Semaphore semaphore;
+
+        Permits(int limit) {
+            this.limit = limit;
+            this.semaphore = new Semaphore(limit);
+        }
+
+        boolean inUse() {
+            return semaphore.availablePermits() < limit;
+        }
+    }
+
+    // Idle entries expire after tasks.tenancy.idle-timeout; entries with permits held never do
+    private record IdleExpiry(long idleNanos) implements Expiry<String, Permits> {
+
+        @Override
+        public long expireAfterCreate(String tenant, Permits permits, long currentTime) {
+            return permits.inUse() ? Long.MAX_VALUE : idleNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String tenant, Permits permits, long currentTime, long currentDuration) {
+            return expireAfterCreate(tenant, permits, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String tenant, Permits permits, long currentTime, long currentDuration) {
+            return expireAfterCreate(tenant, permits, currentTime);
+        }
+    }
+}
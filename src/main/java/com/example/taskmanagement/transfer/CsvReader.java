@@ -0,0 +1,123 @@
+package com.example.taskmanagement.transfer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Incremental RFC 4180 reader: quoted fields may contain commas, quotes and line breaks. Records longer
+// than the limit are read to their end but keep only what fits, and are flagged as oversized.
+class CsvReader {
+
+    private final Reader reader;
+    private final int maxRecordLength;
+    private final char[] buffer = new char[64 * 1024];
+    private final StringBuilder field = new StringBuilder();
+    private int position;
+    private int limit;
+    private long line = 1;
+    private int recordLength;
+    private boolean oversized;
+
+    CsvReader(Reader reader) {
+        this(reader, Integer.MAX_VALUE);
+    }
+
+    CsvReader(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    // Line the next record starts on
+    long line() {
+        return line;
+    }
+
+    // Whether the record last returned by next() was cut short
+    boolean oversized() {
+        return oversized;
+    }
+
+    // Returns the fields of the next record, or null at the end of the input
+    List<String> next() throws IOException {
+        if (peek() == -1) {
+            return null;
+        }
+        recordLength = 0;
+        oversized = false;
+        List<String> fields = new ArrayList<>(TaskColumns.NAMES.size());
+        while (true) {
+            field.setLength(0);
+            int c = read();
+            if (c == '"') {
+                readQuoted();
+                c = read();
+            } else {
+                while (c != ',' && c != '\r' && c != '\n' && c != -1) {
+                    append(c);
+                    c = read();
+                }
+            }
+            if (!oversized) {
+                fields.add(field.toString());
+            }
+            if (c == ',') {
+                continue;
+            }
+            if (c == '\r' && peek() == '\n') {
+                position++;
+            }
+            if (c == '\r' || c == '\n') {
+                line++;
+            } else if (c != -1) {
+                throw new IOException("Unexpected character after quoted field on line " + line);
+            }
+            return fields;
+        }
+    }
+
+    private void readQuoted() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new IOException("Unterminated quoted field starting on line " + line);
+            }
+            if (c == '"') {
+                if (peek() != '"') {
+                    return;
+                }
+                position++;
+            } else if (c == '\n') {
+                line++;
+            }
+            append(c);
+        }
+    }
+
+    private void append(int c) {
+        if (recordLength++ < maxRecordLength) {
+            field.append((char) c);
+        } else {
+            oversized = true;
+        }
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c != -1) {
+            position++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            limit = Math.max(reader.read(buffer), 0);
+            position = 0;
+            if (limit == 0) {
+                return -1;
+            }
+        }
+        return buffer[position];
+    }
+}
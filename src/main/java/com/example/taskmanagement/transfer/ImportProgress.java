@@ -0,0 +1,14 @@
+package com.example.taskmanagement.transfer;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+// One line of the NDJSON import report; the last one has done set and lists rejected rows
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportProgress(long rowsRead, long imported, long rejected, long elapsedMillis, boolean done,
+                             List<RejectedRow> errors, String failure) {
+
+    public record RejectedRow(long line, String message) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.taskmanagement.transfer;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Column order shared by the export query, the CSV header and the import statements
+final class TaskColumns {
+
+    static final List<String> NAMES = List.of(
+            "id", "title", "description", "status", "priority", "due_at", "created_at", "updated_at");
+
+    static final List<String> JSON_FIELDS = List.of(
+            "id", "title", "description", "status", "priority", "dueAt", "createdAt", "updatedAt");
+
+    static final String SELECT = "SELECT " + String.join(", ", NAMES) + " FROM tasks WHERE tenant_id = ? ORDER BY id";
+
+    // The tenant is bound last and is never part of an export
+    private static final List<String> WRITTEN = Stream.concat(NAMES.stream(), Stream.of("tenant_id")).toList();
+
+    private static final String COLUMNS = String.join(", ", WRITTEN);
+
+    private static final String VALUES = "VALUES (" + String.join(", ", WRITTEN.stream().map(name -> "?").toList()) + ")";
+
+    // Rows with an allocated id are new; plain inserts are noticeably cheaper than MERGE in H2
+    static final String INSERT = "INSERT INTO tasks (" + COLUMNS + ") " + VALUES;
+
+    // A row whose id belongs to another tenant matches without the tenant condition, and one whose id
+    // is archived is filtered out of the source; both are left untouched, with an update count of 0
+    static final String MERGE = "MERGE INTO tasks t USING (SELECT * FROM (" + VALUES + ") v (" + COLUMNS + ")"
+            + " WHERE NOT EXISTS (SELECT 1 FROM archived_tasks a WHERE a.id = v.id)) s ON t.id = s.id"
+            + " WHEN MATCHED AND t.tenant_id = s.tenant_id THEN UPDATE SET "
+            + NAMES.stream().skip(1).map(name -> name + " = s." + name).collect(Collectors.joining(", "))
+            + " WHEN NOT MATCHED THEN INSERT (" + COLUMNS + ") VALUES ("
+            + WRITTEN.stream().map(name -> "s." + name).collect(Collectors.joining(", ")) + ")";
+
+    private TaskColumns() {
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.taskmanagement.transfer;
+
+import com.example.taskmanagement.config.TransferProperties;
+import com.example.taskmanagement.repository.ShardDataSources;
+import com.example.taskmanagement.tenant.TenantContext;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+// Streams the current tenant's tasks shard after shard through a forward-only cursor, one row at a
+// time, without loading entities or holding more than a fetch-size worth of rows.
+@Component
+public class TaskExporter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ShardDataSources shardDataSources;
+    private final TransferProperties properties;
+    // Lines are terminated explicitly, Jackson's default root separator is a space
+    private final JsonFactory jsonFactory = new JsonFactory().setRootValueSeparator(null);
+    private final Counter exported;
+
+    public TaskExporter(ShardDataSources shardDataSources, TransferProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.shardDataSources = shardDataSources;
+        this.properties = properties;
+        this.exported = meterRegistry.counter("tasks.transfer.rows", "direction", "export");
+    }
+
+    public long export(TransferFormat format, boolean gzip, OutputStream out) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowWriter rows = format == TransferFormat.CSV ? new CsvRowWriter(writer) : new JsonRowWriter(writer);
+        String tenant = TenantContext.current();
+        long count = 0;
+        try {
+            rows.start();
+            for (int shard = 0; shard < shardDataSources.count(); shard++) {
+                count += exportShard(shard, tenant, rows);
+            }
+            rows.finish();
+        } catch (SQLException e) {
+            throw new IOException("Export failed after " + count + " rows", e);
+        }
+        writer.flush();
+        if (target instanceof GZIPOutputStream compressed) {
+            compressed.finish();
+        }
+        return count;
+    }
+
+    private long exportShard(int shard, String tenant, RowWriter rows) throws SQLException, IOException {
+        long count = 0;
+        try (Connection connection = shardDataSources.get(shard).getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            // H2 buffers whole results unless the session streams them lazily
+            setLazy(connection, true);
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(TaskColumns.SELECT,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setString(1, tenant);
+                statement.setFetchSize(properties.getFetchSize());
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        rows.write(resultSet);
+                        count++;
+                    }
+                }
+            } finally {
+                connection.commit();
+                connection.setAutoCommit(autoCommit);
+                setLazy(connection, false);
+                exported.increment(count);
+            }
+        }
+        return count;
+    }
+
+    private static void setLazy(Connection connection, boolean lazy) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LAZY_QUERY_EXECUTION " + lazy);
+        }
+    }
+
+    private static String timestamp(ResultSet resultSet, int column) throws SQLException {
+        Timestamp value = resultSet.getTimestamp(column);
+        return value != null ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value.toLocalDateTime()) : null;
+    }
+
+    private interface RowWriter {
+
+        void start() throws IOException;
+
+        void write(ResultSet resultSet) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    // One Task JSON document per line, with the same field names as the REST API
+    private final class JsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        JsonRowWriter(Writer writer) throws IOException {
+            this.generator = jsonFactory.createGenerator(writer);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void write(ResultSet resultSet) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField(TaskColumns.JSON_FIELDS.get(0), resultSet.getLong(1));
+            for (int column = 2; column <= 5; column++) {
+                writeString(TaskColumns.JSON_FIELDS.get(column - 1), resultSet.getString(column));
+            }
+            for (int column = 6; column <= 8; column++) {
+                writeString(TaskColumns.JSON_FIELDS.get(column - 1), timestamp(resultSet, column));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeString(String field, String value) throws IOException {
+            if (value != null) {
+                generator.writeStringField(field, value);
+            } else {
+                generator.writeNullField(field);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start() throws IOException {
+            writer.write(String.join(",", TaskColumns.NAMES));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet resultSet) throws SQLException, IOException {
+            writer.write(Long.toString(resultSet.getLong(1)));
+            for (int column = 2; column <= 5; column++) {
+                writer.write(',');
+                writeField(resultSet.getString(column));
+            }
+            for (int column = 6; column <= 8; column++) {
+                writer.write(',');
+                writeField(timestamp(resultSet, column));
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void finish() {
+        }
+    }
+}
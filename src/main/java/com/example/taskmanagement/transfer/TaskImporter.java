@@ -0,0 +1,554 @@
+package com.example.taskmanagement.transfer;
+
+import com.example.taskmanagement.audit.AuditAction;
+import com.example.taskmanagement.audit.AuditLog;
+import com.example.taskmanagement.config.TransferProperties;
+import com.example.taskmanagement.model.Task;
+import com.example.taskmanagement.model.TaskPriority;
+import com.example.taskmanagement.model.TaskStatus;
+import com.example.taskmanagement.repository.ShardDataSources;
+import com.example.taskmanagement.repository.TaskIdAllocator;
+import com.example.taskmanagement.repository.TaskShards;
+import com.example.taskmanagement.service.DueTaskIndex;
+import com.example.taskmanagement.service.SingleFlight;
+import com.example.taskmanagement.service.TaskIdFilter;
+import com.example.taskmanagement.service.TaskVersions;
+import com.example.taskmanagement.tenant.TaskQuotaExceededException;
+import com.example.taskmanagement.tenant.TenantContext;
+import com.example.taskmanagement.tenant.TenantQuotas;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+// Parses an upload row by row and writes it with batched JDBC statements, one open batch per shard,
+// so memory stays bounded by the batch size whatever the size of the input. Rows keep their id
+// when they have one (re-importing an export is idempotent); others get one from the allocator.
+// Rows are imported into the current tenant. Ids the allocator has not handed out yet (unless ids
+// are preserved), ids owned by another tenant and ids of archived tasks are rejected.
+@Component
+public class TaskImporter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ShardDataSources shardDataSources;
+    private final TaskShards taskShards;
+    private final TaskIdAllocator taskIdAllocator;
+    private final DueTaskIndex dueTaskIndex;
+    private final TaskIdFilter taskIdFilter;
+    private final SingleFlight singleFlight;
+    private final TaskVersions taskVersions;
+    private final TenantQuotas tenantQuotas;
+    private final AuditLog auditLog;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectReader taskReader;
+    private final Validator validator;
+    private final TransferProperties properties;
+    private final Counter imported;
+
+    public TaskImporter(ShardDataSources shardDataSources, TaskShards taskShards, TaskIdAllocator taskIdAllocator,
+                        DueTaskIndex dueTaskIndex, TaskIdFilter taskIdFilter, SingleFlight singleFlight,
+                        TaskVersions taskVersions, TenantQuotas tenantQuotas, AuditLog auditLog,
+                        EntityManagerFactory entityManagerFactory, ObjectMapper objectMapper, Validator validator,
+                        TransferProperties properties, MeterRegistry meterRegistry) {
+        this.shardDataSources = shardDataSources;
+        this.taskShards = taskShards;
+        this.taskIdAllocator = taskIdAllocator;
+        this.dueTaskIndex = dueTaskIndex;
+        this.taskIdFilter = taskIdFilter;
+        this.singleFlight = singleFlight;
+        this.taskVersions = taskVersions;
+        this.tenantQuotas = tenantQuotas;
+        this.auditLog = auditLog;
+        this.entityManagerFactory = entityManagerFactory;
+        this.taskReader = objectMapper.readerFor(Task.class);
+        this.validator = validator;
+        this.properties = properties;
+        this.imported = meterRegistry.counter("tasks.transfer.rows", "direction", "import");
+    }
+
+    public ImportProgress importTasks(TransferFormat format, InputStream in, Consumer<ImportProgress> progress) {
+        return importTasks(format, in, progress, false);
+    }
+
+    // Gzip-compressed uploads are detected from their magic bytes. With preserveIds, rows keep ids the
+    // allocator has not handed out yet and the id sequence is moved past them, as when restoring a
+    // backup into an empty database.
+    public ImportProgress importTasks(TransferFormat format, InputStream in, Consumer<ImportProgress> progress,
+                                      boolean preserveIds) {
+        String tenant = TenantContext.current();
+        long started = System.nanoTime();
+        List<ImportProgress.RejectedRow> errors = new ArrayList<>();
+        long rowsRead = 0;
+        long rejected = 0;
+        String failure = null;
+        ShardBatches batches = new ShardBatches(tenant);
+        try {
+            RowSource source = open(format, decompress(in));
+            while (true) {
+                Task task;
+                boolean reserved = false;
+                try {
+                    task = source.next();
+                    if (task == null) {
+                        break;
+                    }
+                    reserved = prepare(task, tenant, preserveIds);
+                } catch (InvalidRowException e) {
+                    task = null;
+                    rejected++;
+                    if (errors.size() < properties.getMaxReportedErrors()) {
+                        errors.add(new ImportProgress.RejectedRow(source.line(), e.getMessage()));
+                    }
+                }
+                rowsRead++;
+                if (task != null) {
+                    boolean existing = task.getId() != null;
+                    if (!existing) {
+                        task.setId(taskIdAllocator.nextId());
+                    }
+                    long addedIn = taskIdFilter.add(task.getId());
+                    batches.add(task, existing, addedIn, reserved);
+                }
+                if (rowsRead % properties.getProgressInterval() == 0) {
+                    progress.accept(new ImportProgress(rowsRead, batches.committed, rejected + batches.foreign,
+                            elapsedMillis(started), false, null, null));
+                }
+            }
+            batches.flushAll();
+        } catch (IOException | SQLException e) {
+            failure = e.getMessage();
+        } finally {
+            batches.close();
+        }
+        return new ImportProgress(rowsRead, batches.committed, rejected + batches.foreign, elapsedMillis(started),
+                true, errors, failure);
+    }
+
+    // Rows the id filter rules out are new for sure and count against the tenant's task quota; true
+    // when the row took a reservation
+    private boolean prepare(Task task, String tenant, boolean preserveIds) throws InvalidRowException {
+        if (task.getId() != null && task.getId() <= 0) {
+            throw new InvalidRowException("id must be positive");
+        }
+        if (task.getId() != null && !(preserveIds
+                ? taskIdAllocator.advancePast(task.getId()) : taskIdAllocator.reserveThrough(task.getId()))) {
+            throw new InvalidRowException("id " + task.getId() + " has not been allocated");
+        }
+        Set<ConstraintViolation<Task>> violations = validator.validate(task);
+        if (!violations.isEmpty()) {
+            throw new InvalidRowException(violations.iterator().next().getMessage());
+        }
+        boolean reserved = task.getId() == null || !taskIdFilter.mightContain(task.getId());
+        if (reserved) {
+            try {
+                tenantQuotas.reserveTasks(tenant, 1);
+            } catch (TaskQuotaExceededException e) {
+                throw new InvalidRowException(e.getMessage());
+            }
+        }
+        task.setTenantId(tenant);
+        if (task.getStatus() == null) {
+            task.setStatus(TaskStatus.PENDING);
+        }
+        if (task.getPriority() == null) {
+            task.setPriority(TaskPriority.MEDIUM);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (task.getCreatedAt() == null) {
+            task.setCreatedAt(now);
+        }
+        if (task.getUpdatedAt() == null) {
+            task.setUpdatedAt(now);
+        }
+        return reserved;
+    }
+
+    private static InputStream decompress(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, BUFFER_SIZE);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        if (first == 0x1f && second == 0x8b) {
+            return new BufferedInputStream(new GZIPInputStream(buffered, BUFFER_SIZE), BUFFER_SIZE);
+        }
+        return buffered;
+    }
+
+    private RowSource open(TransferFormat format, InputStream in) throws IOException {
+        Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        return format == TransferFormat.CSV
+                ? new CsvRowSource(new CsvReader(reader, properties.getMaxRowLength()))
+                : new JsonRowSource(reader);
+    }
+
+    private static long elapsedMillis(long started) {
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+
+    private static final class InvalidRowException extends Exception {
+
+        InvalidRowException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private interface RowSource {
+
+        // Line the last row read starts on
+        long line();
+
+        // Null at the end of the input
+        Task next() throws IOException, InvalidRowException;
+    }
+
+    private final class JsonRowSource implements RowSource {
+
+        private final Reader reader;
+        private final char[] buffer = new char[BUFFER_SIZE];
+        private final StringBuilder text = new StringBuilder();
+        private int position;
+        private int limit;
+        private boolean oversized;
+        private long linesRead;
+        private long line;
+
+        JsonRowSource(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public long line() {
+            return line;
+        }
+
+        @Override
+        public Task next() throws IOException, InvalidRowException {
+            String json;
+            do {
+                json = readLine();
+                if (json == null) {
+                    return null;
+                }
+                line = ++linesRead;
+            } while (json.isBlank() && !oversized);
+            if (oversized) {
+                throw new InvalidRowException("row is longer than " + properties.getMaxRowLength() + " characters");
+            }
+            try {
+                return taskReader.readValue(json);
+            } catch (JsonProcessingException e) {
+                throw new InvalidRowException(e.getOriginalMessage());
+            }
+        }
+
+        // Like BufferedReader.readLine, but keeps at most max-row-length characters of a line
+        private String readLine() throws IOException {
+            int maxLength = properties.getMaxRowLength();
+            text.setLength(0);
+            long length = 0;
+            while (true) {
+                if (position == limit) {
+                    limit = Math.max(reader.read(buffer), 0);
+                    position = 0;
+                    if (limit == 0) {
+                        if (length == 0) {
+                            return null;
+                        }
+                        break;
+                    }
+                }
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                length += position - start;
+                text.append(buffer, start, Math.max(0, Math.min(position - start, maxLength - text.length())));
+                if (position < limit) {
+                    position++;
+                    break;
+                }
+            }
+            if (length > 0 && length <= maxLength && text.charAt(text.length() - 1) == '\r') {
+                text.setLength(text.length() - 1);
+                length--;
+            }
+            oversized = length > maxLength;
+            return text.toString();
+        }
+    }
+
+    private final class CsvRowSource implements RowSource {
+
+        private final CsvReader reader;
+        private Map<String, Integer> columns;
+        private long line;
+
+        CsvRowSource(CsvReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public long line() {
+            return line;
+        }
+
+        @Override
+        public Task next() throws IOException, InvalidRowException {
+            if (columns == null) {
+                List<String> header = reader.next();
+                if (header == null) {
+                    return null;
+                }
+                if (reader.oversized()) {
+                    throw new IOException("CSV header is longer than " + properties.getMaxRowLength() + " characters");
+                }
+                columns = new HashMap<>();
+                for (int i = 0; i < header.size(); i++) {
+                    columns.put(header.get(i).trim().toLowerCase(), i);
+                }
+                if (!columns.containsKey("title")) {
+                    throw new IOException("CSV header has no title column");
+                }
+            }
+            List<String> fields;
+            do {
+                line = reader.line();
+                fields = reader.next();
+                if (fields == null) {
+                    return null;
+                }
+            } while (fields.size() == 1 && fields.get(0).isEmpty() && !reader.oversized());
+            if (reader.oversized()) {
+                throw new InvalidRowException("row is longer than " + properties.getMaxRowLength() + " characters");
+            }
+
+            try {
+                Task task = new Task(field(fields, "title"), field(fields, "description"), null);
+                String id = field(fields, "id");
+                task.setId(id != null ? Long.valueOf(id) : null);
+                String status = field(fields, "status");
+                task.setStatus(status != null ? TaskStatus.valueOf(status) : null);
+                String priority = field(fields, "priority");
+                task.setPriority(priority != null ? TaskPriority.valueOf(priority) : null);
+                task.setDueAt(dateTime(field(fields, "due_at")));
+                task.setCreatedAt(dateTime(field(fields, "created_at")));
+                task.setUpdatedAt(dateTime(field(fields, "updated_at")));
+                return task;
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new InvalidRowException(e.getMessage());
+            }
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index);
+            return value.isEmpty() ? null : value;
+        }
+
+        private static LocalDateTime dateTime(String value) {
+            return value != null ? LocalDateTime.parse(value) : null;
+        }
+    }
+
+    // One open batch per shard, each committed on its own once it is full
+    private final class ShardBatches {
+
+        private final ShardBatch[] shards = new ShardBatch[shardDataSources.count()];
+        private final String tenant;
+        private long committed;
+        // Rows left untouched because their id belongs to another tenant or to an archived task
+        private long foreign;
+
+        ShardBatches(String tenant) {
+            this.tenant = tenant;
+        }
+
+        void add(Task task, boolean existing, long addedIn, boolean reserved) throws SQLException {
+            int shard = taskShards.shardFor(task.getId());
+            if (shards[shard] == null) {
+                shards[shard] = new ShardBatch(shardDataSources.get(shard).getConnection(), tenant);
+            }
+            if (shards[shard].add(task, existing, addedIn, reserved) >= properties.getBatchSize()) {
+                flush(shards[shard]);
+            }
+        }
+
+        void flushAll() throws SQLException {
+            for (ShardBatch shard : shards) {
+                if (shard != null) {
+                    flush(shard);
+                }
+            }
+        }
+
+        private void flush(ShardBatch shard) throws SQLException {
+            int pending = shard.pending.size();
+            int written = shard.flush();
+            committed += written;
+            foreign += pending - written;
+        }
+
+        void close() {
+            for (ShardBatch shard : shards) {
+                if (shard != null) {
+                    shard.close();
+                }
+            }
+            imported.increment(committed);
+        }
+    }
+
+    private final class ShardBatch {
+
+        private final Connection connection;
+        private final String tenant;
+        private final boolean autoCommit;
+        private final PreparedStatement insert;
+        private final PreparedStatement merge;
+        private final List<Task> pending = new ArrayList<>(properties.getBatchSize());
+        private final List<Long> merged = new ArrayList<>();
+        // Pending rows counted against the tenant's quota, given back unless they are written
+        private final Set<Long> reserved = new HashSet<>();
+        // Id filter generation the first pending row was added in
+        private long addedIn;
+
+        ShardBatch(Connection connection, String tenant) throws SQLException {
+            this.connection = connection;
+            this.tenant = tenant;
+            this.autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            this.insert = connection.prepareStatement(TaskColumns.INSERT);
+            this.merge = connection.prepareStatement(TaskColumns.MERGE);
+        }
+
+        // Rows that came with an id may replace an existing task, so they are merged
+        int add(Task task, boolean existing, long addedIn, boolean reserved) throws SQLException {
+            if (pending.isEmpty()) {
+                this.addedIn = addedIn;
+            }
+            if (reserved) {
+                this.reserved.add(task.getId());
+            }
+            PreparedStatement statement = existing ? merge : insert;
+            statement.setLong(1, task.getId());
+            statement.setString(2, task.getTitle());
+            statement.setString(3, task.getDescription());
+            statement.setString(4, task.getStatus().name());
+            statement.setString(5, task.getPriority().name());
+            setTimestamp(statement, 6, task.getDueAt());
+            setTimestamp(statement, 7, task.getCreatedAt());
+            setTimestamp(statement, 8, task.getUpdatedAt());
+            statement.setString(9, task.getTenantId());
+            statement.addBatch();
+            pending.add(task);
+            if (existing) {
+                merged.add(task.getId());
+            }
+            return pending.size();
+        }
+
+        // Raw writes bypass Hibernate, so cached copies of merged rows and every cached query go, and
+        // shared reads and response versions are invalidated by hand. The audit log gets one event per
+        // row written, once the batch has committed.
+        int flush() throws SQLException {
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            if (merged.size() < pending.size()) {
+                insert.executeBatch();
+            }
+            Set<Long> foreign = new HashSet<>();
+            if (!merged.isEmpty()) {
+                int[] counts = merge.executeBatch();
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) {
+                        foreign.add(merged.get(i));
+                    }
+                }
+            }
+            connection.commit();
+            taskIdFilter.addIfRebuiltSince(addedIn, pending.stream().map(Task::getId).toList());
+            Cache cache = entityManagerFactory.getCache();
+            for (Long id : merged) {
+                cache.evict(Task.class, id);
+            }
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+            for (Task task : pending) {
+                if (!foreign.contains(task.getId())) {
+                    dueTaskIndex.update(task);
+                    auditLog.record(AuditAction.IMPORT, task.getId(), null, task.getStatus());
+                }
+            }
+            releaseReserved((int) foreign.stream().filter(reserved::contains).count());
+            singleFlight.invalidateAfterCommit();
+            taskVersions.bumpAll(tenant);
+            int flushed = pending.size() - foreign.size();
+            pending.clear();
+            merged.clear();
+            reserved.clear();
+            return flushed;
+        }
+
+        private static void setTimestamp(PreparedStatement statement, int index, LocalDateTime value)
+                throws SQLException {
+            if (value != null) {
+                statement.setTimestamp(index, Timestamp.valueOf(value));
+            } else {
+                statement.setNull(index, Types.TIMESTAMP);
+            }
+        }
+
+        private void releaseReserved(int tasks) {
+            if (tasks > 0) {
+                tenantQuotas.releaseTasksAfterCommit(tenant, tasks);
+            }
+        }
+
+        void close() {
+            releaseReserved(reserved.size());
+            reserved.clear();
+            try (connection; insert; merge) {
+                if (!pending.isEmpty()) {
+                    connection.rollback();
+                }
+                connection.setAutoCommit(autoCommit);
+            } catch (SQLException e) {
+                // The connection is discarded by the pool if it cannot be reset
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.taskmanagement.audit;
+
+import com.example.taskmanagement.config.AuditProperties;
+import com.example.taskmanagement.model.TaskStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void ringBuffer_rejectsOffersWhenFullAndPreservesOrder() {
+        AuditRingBuffer buffer = new AuditRingBuffer(4);
+        for (long id = 1; id <= 4; id++) {
+            assertTrue(buffer.offer(event(id)));
+        }
+
+        assertFalse(buffer.offer(event(5L)));
+        assertEquals(1L, buffer.poll().taskId());
+        assertTrue(buffer.offer(event(5L)));
+        assertEquals(List.of(2L, 3L, 4L, 5L), List.of(buffer.poll().taskId(), buffer.poll().taskId(),
+            buffer.poll().taskId(), buffer.poll().taskId()));
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    void ringBuffer_requiresPowerOfTwoCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new AuditRingBuffer(6));
+    }
+
+    @Test
+    void record_writesEventsToCompressedSegmentsOnStop() throws IOException {
+        AuditLog auditLog = auditLog(1024);
+        auditLog.start();
+
+        auditLog.record(AuditAction.CREATE, 1L, null, TaskStatus.PENDING);
+        auditLog.record(AuditAction.UPDATE, 1L, TaskStatus.PENDING, TaskStatus.COMPLETED);
+        auditLog.record(AuditAction.DELETE, 1L, TaskStatus.COMPLETED, null);
+        auditLog.stop();
+
+        List<String> lines = readSegments();
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(1).contains("\"action\":\"UPDATE\""));
+        assertTrue(lines.get(1).contains("\"statusBefore\":\"PENDING\""));
+        assertTrue(lines.get(1).contains("\"statusAfter\":\"COMPLETED\""));
+        assertTrue(lines.get(0).contains("\"actor\":\"system\""));
+        assertEquals(3, auditLog.writtenCount());
+    }
+
+    @Test
+    void stopsAfterTheWebServerHasDrainedRequests() {
+        assertTrue(auditLog(1024).getPhase() < WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024);
+    }
+
+    @Test
+    void record_countsDropsWhileBufferIsFull() {
+        AuditLog auditLog = auditLog(2);
+
+        for (long id = 0; id < 5; id++) {
+            auditLog.record(AuditAction.CREATE, id, null, TaskStatus.PENDING);
+        }
+
+        assertEquals(3, auditLog.droppedCount());
+    }
+
+    private AuditLog auditLog(int bufferSize) {
+        AuditProperties properties = new AuditProperties();
+        properties.setDirectory(directory);
+        properties.setBufferSize(bufferSize);
+        return new AuditLog(properties, new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    private List<String> readSegments() throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (Stream<Path> segments = Files.list(directory).sorted()) {
+            for (Path segment : segments.toList()) {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                        new GZIPInputStream(Files.newInputStream(segment)), StandardCharsets.UTF_8))) {
+                    reader.lines().forEach(lines::add);
+                }
+            }
+        }
+        return lines;
+    }
+
+    private static AuditEvent event(Long taskId) {
+        return new AuditEvent(0L, "test", AuditAction.CREATE, taskId, null, TaskStatus.PENDING);
+    }
+}
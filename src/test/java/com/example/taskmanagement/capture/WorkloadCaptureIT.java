@@ -0,0 +1,121 @@
+package com.example.taskmanagement.capture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:capturetest",
+        "tasks.capture.enabled=true",
+        "tasks.capture.max-body-size=1KB"
+})
+@AutoConfigureMockMvc
+class WorkloadCaptureIT {
+
+    @TempDir
+    static Path captureDirectory;
+
+    @DynamicPropertySource
+    static void captureProperties(DynamicPropertyRegistry registry) {
+        registry.add("tasks.capture.directory", () -> captureDirectory.toString());
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WorkloadCapture workloadCapture;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void recordsRequestsWithBodiesTimingAndCreatedIds() throws Exception {
+        String create = "{\"title\":\"Captured\",\"description\":\"Desc\"}";
+        String created = mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Idempotency-Key", "capture-1")
+                        .content(create))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+        mockMvc.perform(get("/api/tasks/{id}", id))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/tasks/search?title=capt"))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/tasks/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"" + "x".repeat(2000) + "\"}"))
+                .andExpect(status().isBadRequest());
+        // Recorded only when the async context completes, with the time it took until then
+        MvcResult lookup = mockMvc.perform(get("/api/tasks?ids=" + id))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        Thread.sleep(100);
+        mockMvc.perform(asyncDispatch(lookup))
+                .andExpect(status().isOk());
+
+        workloadCapture.stop();
+        List<String[]> lines = readCapture();
+
+        assertEquals(4, lines.size());
+        String[] post = lines.get(0);
+        assertEquals("POST", post[1]);
+        assertEquals("/api/tasks", post[2]);
+        assertEquals("201", post[3]);
+        assertTrue(Long.parseLong(post[4]) > 0);
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, post[5]);
+        assertEquals("capture-1", post[6]);
+        assertEquals(Long.toString(id), post[7]);
+        assertEquals(create, new String(Base64.getDecoder().decode(post[8]), StandardCharsets.UTF_8));
+        assertEquals("default", post[9]);
+
+        assertArrayEquals(new String[]{"GET", "/api/tasks/" + id, "200"},
+                new String[]{lines.get(1)[1], lines.get(1)[2], lines.get(1)[3]});
+        assertEquals("/api/tasks/search?title=capt", lines.get(2)[2]);
+        assertEquals("", lines.get(2)[8]);
+        assertEquals("/api/tasks?ids=" + id, lines.get(3)[2]);
+        assertEquals("200", lines.get(3)[3]);
+        assertTrue(Long.parseLong(lines.get(3)[4]) >= 100_000);
+    }
+
+    private static List<String[]> readCapture() throws IOException {
+        List<String[]> lines = new ArrayList<>();
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(captureDirectory)) {
+            segments = files.sorted().toList();
+        }
+        for (Path segment : segments) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(segment)), StandardCharsets.UTF_8))) {
+                reader.lines().map(line -> line.split("\t", -1)).forEach(lines::add);
+            }
+        }
+        lines.sort((a, b) -> Long.compare(Long.parseLong(a[0]), Long.parseLong(b[0])));
+        return lines;
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.taskmanagement.controller;
+
+import com.example.taskmanagement.dto.DueTask;
+import com.example.taskmanagement.model.Task;
+import com.example.taskmanagement.model.TaskPriority;
+import com.example.taskmanagement.model.TaskStatus;
+import com.example.taskmanagement.repository.TaskRepository;
+import com.example.taskmanagement.service.DueTaskIndex;
+import com.example.taskmanagement.service.TaskOverdueEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:duetest",
+        "tasks.due.notify-interval=PT1H"
+})
+@AutoConfigureMockMvc
+@RecordApplicationEvents
+class DueTaskIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private DueTaskIndex dueTaskIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAll();
+        dueTaskIndex.rebuild();
+    }
+
+    @Test
+    void getTasksDueWithin_ordersByDueTimeThenPriority() throws Exception {
+        LocalDateTime soon = LocalDateTime.now().plusMinutes(30).withNano(0);
+        long later = createTask("Later", TaskPriority.URGENT, soon.plusMinutes(20));
+        long soonLow = createTask("Soon low", TaskPriority.LOW, soon);
+        long soonHigh = createTask("Soon high", TaskPriority.HIGH, soon);
+        createTask("Next week", TaskPriority.URGENT, soon.plusDays(7));
+        createTask("Overdue", TaskPriority.MEDIUM, soon.minusHours(2));
+        createTask("No due date", TaskPriority.MEDIUM, null);
+
+        mockMvc.perform(get("/api/tasks/due").param("within", "PT1H"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains((int) soonHigh, (int) soonLow, (int) later)))
+                .andExpect(jsonPath("$[0].priority").value("HIGH"));
+
+        mockMvc.perform(get("/api/tasks/due").param("within", "PT1H").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void getOverdueTasks_followsUpdatesAndDeletes() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        long overdue = createTask("Overdue", TaskPriority.MEDIUM, now.minusDays(2));
+        long completed = createTask("Completed later", TaskPriority.MEDIUM, now.minusDays(1));
+        long deleted = createTask("Deleted later", TaskPriority.MEDIUM, now.minusHours(1));
+        long rescheduled = createTask("Rescheduled", TaskPriority.MEDIUM, now.minusMinutes(5));
+
+        mockMvc.perform(put("/api/tasks/{id}", completed)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\": \"COMPLETED\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/tasks/{id}", deleted))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(put("/api/tasks/{id}", rescheduled)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"dueAt\": \"" + now.plusDays(1) + "\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/tasks/overdue"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains((int) overdue)));
+    }
+
+    @Test
+    void rebuild_loadsOpenTasksWithDueDatesFromTheDatabase() throws Exception {
+        Task open = new Task("Open", "Desc", TaskStatus.IN_PROGRESS);
+        open.setDueAt(LocalDateTime.now().minusHours(1));
+        Task done = new Task("Done", "Desc", TaskStatus.COMPLETED);
+        done.setDueAt(LocalDateTime.now().minusHours(1));
+        taskRepository.saveAll(List.of(open, done));
+
+        dueTaskIndex.rebuild();
+
+        assertEquals(1, dueTaskIndex.size());
+        mockMvc.perform(get("/api/tasks/overdue"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(open.getId().intValue())));
+    }
+
+    @Test
+    void publishOverdue_announcesTasksOnceWhenTheirDueTimePasses() throws Exception {
+        long task = createTask("Soon", TaskPriority.HIGH, LocalDateTime.now().plusNanos(200_000_000));
+        dueTaskIndex.publishOverdue();
+        assertEquals(0, applicationEvents.stream(TaskOverdueEvent.class).count());
+
+        Thread.sleep(300);
+        dueTaskIndex.publishOverdue();
+        dueTaskIndex.publishOverdue();
+
+        List<TaskOverdueEvent> events = applicationEvents.stream(TaskOverdueEvent.class).toList();
+        assertEquals(1, events.size());
+        assertEquals(task, events.get(0).task().id());
+    }
+
+    @Test
+    void tasksAlreadyPastDueAreAnnouncedWhenIndexed() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        long created = createTask("Late from the start", TaskPriority.MEDIUM, now.minusHours(1));
+        long moved = createTask("Moved back", TaskPriority.MEDIUM, now.plusDays(1));
+        mockMvc.perform(put("/api/tasks/{id}", moved)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"dueAt\": \"" + now.minusMinutes(5) + "\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/tasks/{id}", created)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Still late\"}"))
+                .andExpect(status().isOk());
+        dueTaskIndex.publishOverdue();
+
+        assertEquals(List.of(created, moved),
+                applicationEvents.stream(TaskOverdueEvent.class).map(event -> event.task().id()).toList());
+    }
+
+    @Test
+    void updateAfterCommit_dropsSnapshotsOlderThanTheIndexedOne() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        Task newer = dueTask(900_001L, now.plusMinutes(10), now);
+        Task older = dueTask(900_001L, now.plusMinutes(50), now.minusSeconds(1));
+
+        dueTaskIndex.updateAfterCommit(newer);
+        dueTaskIndex.updateAfterCommit(older);
+
+        assertEquals(List.of(now.plusMinutes(10)),
+                dueTaskIndex.dueWithin("default", now, now.plusHours(1), 10).stream().map(DueTask::dueAt).toList());
+
+        dueTaskIndex.removeAfterCommit(900_001L);
+        dueTaskIndex.updateAfterCommit(newer);
+
+        assertEquals(0, dueTaskIndex.size());
+    }
+
+    @Test
+    void startsBeforeTheWebServer() {
+        assertTrue(dueTaskIndex.getPhase() < WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024);
+    }
+
+    @Test
+    void getTasksDueWithin_rejectsNegativeWindow() throws Exception {
+        mockMvc.perform(get("/api/tasks/due").param("within", "-PT1H"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static Task dueTask(long id, LocalDateTime dueAt, LocalDateTime updatedAt) {
+        Task task = new Task("Snapshot", "Desc", TaskStatus.PENDING);
+        task.setId(id);
+        task.setTenantId("default");
+        task.setPriority(TaskPriority.MEDIUM);
+        task.setDueAt(dueAt);
+        task.setUpdatedAt(updatedAt);
+        return task;
+    }
+
+    private long createTask(String title, TaskPriority priority, LocalDateTime dueAt) throws Exception {
+        Map<String, Object> body = new HashMap<>(Map.of("title", title, "priority", priority));
+        if (dueAt != null) {
+            body.put("dueAt", dueAt.toString());
+        }
+        String response = mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+}
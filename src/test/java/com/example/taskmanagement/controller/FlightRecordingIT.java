@@ -0,0 +1,108 @@
+package com.example.taskmanagement.controller;
+
+import com.example.taskmanagement.diagnostics.FlightRecordings;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:jfrtest",
+        "tasks.jfr.endpoint-enabled=true",
+        "tasks.jfr.settings=profile"
+})
+@AutoConfigureMockMvc
+class FlightRecordingIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FlightRecordings flightRecordings;
+
+    @TempDir
+    private Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        flightRecordings.closeCurrent();
+    }
+
+    @Test
+    void recording_capturesTaskEvents() throws Exception {
+        mockMvc.perform(post("/api/admin/recordings/start"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.state").value("RUNNING"));
+
+        mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Profile me\", \"description\": \"Desc\", \"status\": \"PENDING\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/tasks/status/PENDING"))
+                .andExpect(status().isOk());
+
+        MvcResult result = mockMvc.perform(post("/api/admin/recordings/stop"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] jfr = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Path file = Files.write(tempDir.resolve("tasks.jfr"), jfr);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Set<String> names = events.stream()
+                .map(event -> event.getEventType().getName())
+                .collect(Collectors.toSet());
+        assertTrue(names.containsAll(Set.of(
+                "com.example.taskmanagement.Request",
+                "com.example.taskmanagement.Handler",
+                "com.example.taskmanagement.Validation",
+                "com.example.taskmanagement.Service",
+                "com.example.taskmanagement.Query",
+                "com.example.taskmanagement.Flush",
+                "com.example.taskmanagement.JdbcExecute")), names.toString());
+
+        RecordedEvent create = events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.example.taskmanagement.Service"))
+                .filter(event -> event.getString("operation").equals("createTask"))
+                .findFirst().orElseThrow();
+        assertTrue(create.getLong("taskId") > 0);
+        assertEquals("PENDING", create.getString("taskStatus"));
+    }
+
+    @Test
+    void startRecording_whileRunning_returnsConflict() throws Exception {
+        mockMvc.perform(post("/api/admin/recordings/start").param("duration", "PT30S"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/admin/recordings/start"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(get("/api/admin/recordings"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"));
+    }
+
+    @Test
+    void stopRecording_withoutRecording_returnsNotFound() throws Exception {
+        mockMvc.perform(post("/api/admin/recordings/stop"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.taskmanagement.controller;
+
+import com.example.taskmanagement.idempotency.IdempotencyFilter;
+import com.example.taskmanagement.repository.TaskRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotencytest",
+        "tasks.idempotency.store=jdbc",
+        "tasks.idempotency.max-response-size=400B",
+        "tasks.tenancy.quotas.capped.max-tasks=1"
+})
+@AutoConfigureMockMvc
+class IdempotencyIT {
+
+    private static final String TENANT = "X-Tenant-ID";
+
+    private static final String TASK_JSON = """
+            {"title": "Pay invoice", "description": "Only once", "status": "PENDING"}""";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    void createTask_withSameKey_createsOnceAndReplays() throws Exception {
+        MockHttpServletResponse first = mockMvc.perform(createTask("key-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn().getResponse();
+
+        MockHttpServletResponse second = mockMvc.perform(createTask("key-1"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn().getResponse();
+
+        assertEquals(first.getContentAsString(), second.getContentAsString());
+        assertEquals(first.getContentType(), second.getContentType());
+        assertNotNull(first.getHeader(HttpHeaders.LOCATION));
+        assertEquals(first.getHeader(HttpHeaders.LOCATION), second.getHeader(HttpHeaders.LOCATION));
+        assertEquals(1, taskRepository.count());
+    }
+
+    @Test
+    void createTask_withDifferentKeysOrNoKey_createsEachTime() throws Exception {
+        mockMvc.perform(createTask("key-a")).andExpect(status().isCreated());
+        mockMvc.perform(createTask("key-b")).andExpect(status().isCreated());
+        mockMvc.perform(post("/api/tasks").contentType(MediaType.APPLICATION_JSON).content(TASK_JSON))
+                .andExpect(status().isCreated());
+
+        assertEquals(3, taskRepository.count());
+    }
+
+    @Test
+    void createTask_withSameKeyAndDifferentBody_isRejected() throws Exception {
+        mockMvc.perform(createTask("key-reused")).andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/tasks")
+                        .header(IdempotencyFilter.KEY_HEADER, "key-reused")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Pay another invoice\", \"status\": \"PENDING\"}"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+
+        assertEquals(1, taskRepository.count());
+    }
+
+    @Test
+    void createTask_validationErrorIsReplayed() throws Exception {
+        mockMvc.perform(createTask("key-invalid", "{\"title\": \"\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+        mockMvc.perform(createTask("key-invalid", "{\"title\": \"\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+    }
+
+    @Test
+    void createTask_rejectedByQuota_runsAgainOnRetry() throws Exception {
+        String body = mockMvc.perform(createTask("key-capped-1").header(TENANT, "capped"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(createTask("key-capped-2").header(TENANT, "capped"))
+                .andExpect(status().isForbidden());
+
+        long id = objectMapper.readTree(body).get("id").asLong();
+        mockMvc.perform(delete("/api/tasks/{id}", id).header(TENANT, "capped"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(createTask("key-capped-2").header(TENANT, "capped"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void createTask_withResponseOverTheLimit_isNotStored() throws Exception {
+        String large = "{\"title\": \"Large\", \"description\": \"" + "d".repeat(450) + "\"}";
+        mockMvc.perform(createTask("key-large", large)).andExpect(status().isCreated());
+        mockMvc.perform(createTask("key-large", large))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+
+        assertEquals(2, taskRepository.count());
+    }
+
+    @Test
+    void createTask_concurrentDuplicates_executeOnce() throws Exception {
+        int requests = 8;
+        List<Future<MvcResult>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(requests)) {
+            for (int i = 0; i < requests; i++) {
+                results.add(executor.submit(() -> mockMvc.perform(createTask("key-concurrent")).andReturn()));
+            }
+        }
+
+        Set<String> bodies = new HashSet<>();
+        for (Future<MvcResult> result : results) {
+            assertEquals(201, result.get().getResponse().getStatus());
+            bodies.add(result.get().getResponse().getContentAsString());
+        }
+        assertEquals(1, bodies.size());
+        assertEquals(1, taskRepository.count());
+    }
+
+    @Test
+    void createTask_withOversizedKey_returnsBadRequest() throws Exception {
+        mockMvc.perform(createTask("k".repeat(256)))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(0, taskRepository.count());
+    }
+
+    private static MockHttpServletRequestBuilder createTask(String idempotencyKey) {
+        return createTask(idempotencyKey, TASK_JSON);
+    }
+
+    private static MockHttpServletRequestBuilder createTask(String idempotencyKey, String json) {
+        return post("/api/tasks")
+                .header(IdempotencyFilter.KEY_HEADER, idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json);
+    }
+}
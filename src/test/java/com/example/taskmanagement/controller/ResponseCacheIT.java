@@ -0,0 +1,153 @@
+package com.example.taskmanagement.controller;
+
+import com.example.taskmanagement.model.Task;
+import com.example.taskmanagement.model.TaskStatus;
+import com.example.taskmanagement.repository.TaskRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:responsecachetest",
+        "tasks.response-cache.gzip-min-size=1KB"
+})
+@AutoConfigureMockMvc
+class ResponseCacheIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAll();
+        responseCache.invalidateAll();
+    }
+
+    @Test
+    void repeatedListIsServedFromCacheUntilAWrite() throws Exception {
+        taskRepository.save(new Task("First", "Desc", TaskStatus.PENDING));
+
+        mockMvc.perform(get("/api/tasks/status/PENDING"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+        double hits = hits();
+        mockMvc.perform(get("/api/tasks/status/PENDING"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(1)));
+        assertEquals(hits + 1, hits());
+
+        mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Second\",\"description\":\"Desc\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/tasks/status/PENDING"))
+                .andExpect(jsonPath("$[*].title", contains("First", "Second")));
+    }
+
+    @Test
+    void statusChangeInvalidatesBothLists() throws Exception {
+        Task task = taskRepository.save(new Task("Moving", "Desc", TaskStatus.PENDING));
+        mockMvc.perform(get("/api/tasks/status/PENDING")).andExpect(jsonPath("$", hasSize(1)));
+        mockMvc.perform(get("/api/tasks/status/COMPLETED")).andExpect(jsonPath("$", hasSize(0)));
+
+        mockMvc.perform(put("/api/tasks/{id}", task.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"COMPLETED\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/tasks/status/PENDING")).andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/tasks/status/COMPLETED")).andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void searchIsInvalidatedByUpdatesOfAnyStatus() throws Exception {
+        Task task = taskRepository.save(new Task("Report draft", "Desc", TaskStatus.IN_PROGRESS));
+        mockMvc.perform(get("/api/tasks/search").param("title", "report"))
+                .andExpect(jsonPath("$[0].title").value("Report draft"));
+
+        mockMvc.perform(put("/api/tasks/{id}", task.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Report final\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/tasks/search").param("title", "report"))
+                .andExpect(jsonPath("$[0].title").value("Report final"));
+    }
+
+    @Test
+    void largeResponsesAreServedGzippedToClientsThatAcceptIt() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            taskRepository.save(new Task("Task " + i, "A description long enough to pass the gzip threshold",
+                    TaskStatus.PENDING));
+        }
+
+        byte[] plain = mockMvc.perform(get("/api/tasks/status/PENDING"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] gzipped = mockMvc.perform(get("/api/tasks/status/PENDING")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertTrue(gzipped.length < plain.length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertEquals(20, objectMapper.readTree(body).size());
+        }
+        mockMvc.perform(get("/api/tasks/status/PENDING").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void emptyResponsesAreWeighedWithTheirKeyAndEntryOverhead() throws Exception {
+        String title = "n".repeat(50);
+        mockMvc.perform(get("/api/tasks/search").param("title", title))
+                .andExpect(content().string("[]"));
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (cachedBytes() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(cachedBytes() > title.length() + "[]".length() + 100, "weight " + cachedBytes());
+    }
+
+    private double hits() {
+        return meterRegistry.get("cache.gets").tag("cache", "tasks.responses").tag("result", "hit")
+                .functionCounter().count();
+    }
+
+    private double cachedBytes() {
+        return meterRegistry.get("tasks.responses.cache.bytes").gauge().value();
+    }
+}
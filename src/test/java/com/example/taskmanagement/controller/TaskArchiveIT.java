@@ -0,0 +1,176 @@
+package com.example.taskmanagement.controller;
+
+import com.example.taskmanagement.model.Task;
+import com.example.taskmanagement.model.TaskStatus;
+import com.example.taskmanagement.repository.ArchivedTaskRepository;
+import com.example.taskmanagement.repository.TaskRepository;
+import com.example.taskmanagement.service.TaskArchiver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archivetest",
+        "tasks.archive.enabled=false",
+        "tasks.archive.min-age=0s",
+        "tasks.tenancy.quotas.archiving.max-tasks=1"
+})
+@AutoConfigureMockMvc
+class TaskArchiveIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Autowired
+    private TaskArchiver taskArchiver;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAll();
+        archivedTaskRepository.deleteAll();
+    }
+
+    @Test
+    void archiveNow_movesOnlyTerminalTasks() throws Exception {
+        Task completed = taskRepository.save(new Task("Done", "Finished work", TaskStatus.COMPLETED));
+        Task cancelled = taskRepository.save(new Task("Dropped", "Not needed", TaskStatus.CANCELLED));
+        Task pending = taskRepository.save(new Task("Open", "Still to do", TaskStatus.PENDING));
+
+        assertEquals(2, taskArchiver.archiveNow());
+
+        assertFalse(taskRepository.existsById(completed.getId()));
+        assertFalse(taskRepository.existsById(cancelled.getId()));
+        assertTrue(taskRepository.existsById(pending.getId()));
+        mockMvc.perform(get("/api/tasks/status/{status}", "COMPLETED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void getTaskById_fallsThroughToArchive() throws Exception {
+        Task completed = taskRepository.save(new Task("Done", "Finished work", TaskStatus.COMPLETED));
+        taskArchiver.archiveNow();
+
+        mockMvc.perform(get("/api/tasks/{id}", completed.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(completed.getId()))
+                .andExpect(jsonPath("$.title").value("Done"))
+                .andExpect(jsonPath("$.description").value("Finished work"))
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+    }
+
+    @Test
+    void searchArchive_findsArchivedTasksByTitle() throws Exception {
+        taskRepository.save(new Task("Write release notes", "Desc", TaskStatus.COMPLETED));
+        taskRepository.save(new Task("Review PR", "Desc", TaskStatus.CANCELLED));
+        taskRepository.save(new Task("Write tests", "Desc", TaskStatus.PENDING));
+        taskArchiver.archiveNow();
+
+        mockMvc.perform(get("/api/tasks/archive/search").param("title", "WRITE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title").value("Write release notes"));
+    }
+
+    @Test
+    void restore_movesTaskBackToLiveTable() throws Exception {
+        Task completed = taskRepository.save(new Task("Done", "Finished work", TaskStatus.COMPLETED));
+        taskArchiver.archiveNow();
+
+        mockMvc.perform(post("/api/tasks/archive/{id}/restore", completed.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(completed.getId()))
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+
+        assertTrue(taskRepository.existsById(completed.getId()));
+        assertFalse(archivedTaskRepository.existsById(completed.getId()));
+        assertEquals(completed.getCreatedAt().withNano(0),
+                taskRepository.findById(completed.getId()).orElseThrow().getCreatedAt().withNano(0));
+    }
+
+    @Test
+    void import_leavesArchivedTasksAlone() throws Exception {
+        Task completed = taskRepository.save(new Task("Done", "Finished work", TaskStatus.COMPLETED));
+        taskArchiver.archiveNow();
+
+        mockMvc.perform(post("/api/tasks/import").content("{\"id\": " + completed.getId() + ", \"title\": \"Revived\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"rejected\":1")));
+
+        assertFalse(taskRepository.existsById(completed.getId()));
+        mockMvc.perform(get("/api/tasks/{id}", completed.getId()))
+                .andExpect(jsonPath("$.title").value("Done"));
+    }
+
+    @Test
+    void archiveNow_releasesTheTenantTaskQuota() throws Exception {
+        mockMvc.perform(post("/api/tasks").header("X-Tenant-ID", "archiving")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Done\", \"status\": \"COMPLETED\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/tasks").header("X-Tenant-ID", "archiving")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Next\"}"))
+                .andExpect(status().isForbidden());
+
+        taskArchiver.archiveNow();
+
+        mockMvc.perform(post("/api/tasks").header("X-Tenant-ID", "archiving")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Next\"}"))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void deleteTask_removesArchivedTasks() throws Exception {
+        Task completed = taskRepository.save(new Task("Done", "Finished work", TaskStatus.COMPLETED));
+        taskArchiver.archiveNow();
+
+        mockMvc.perform(delete("/api/tasks/{id}", completed.getId()))
+                .andExpect(status().isNoContent());
+
+        assertFalse(archivedTaskRepository.existsById(completed.getId()));
+        mockMvc.perform(get("/api/tasks/{id}", completed.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void lookupTasks_findsArchivedTasksLikeGetTaskById() throws Exception {
+        Task completed = taskRepository.save(new Task("Done", "Finished work", TaskStatus.COMPLETED));
+        Task pending = taskRepository.save(new Task("Open", "Still to do", TaskStatus.PENDING));
+        taskArchiver.archiveNow();
+
+        MvcResult result = mockMvc.perform(get("/api/tasks?ids=" + completed.getId() + "," + pending.getId() + ",9999"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks", hasSize(2)))
+                .andExpect(jsonPath("$.tasks[0].title").value("Done"))
+                .andExpect(jsonPath("$.tasks[1].title").value("Open"))
+                .andExpect(jsonPath("$.missing", contains(9999)));
+    }
+
+    @Test
+    void restore_returnsNotFoundForUnknownId() throws Exception {
+        mockMvc.perform(post("/api/tasks/archive/{id}/restore", 9999))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -11,8 +11,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -244,4 +247,54 @@ class TaskControllerIT {
                     .andExpect(jsonPath("$.status").value(status.toString()));
         }
     }
+
+    @Test
+    void getTasksByIds_returnsTasksInRequestOrderAndMissingIds() throws Exception {
+        Task first = taskRepository.save(new Task("First", "Desc", TaskStatus.PENDING));
+        Task second = taskRepository.save(new Task("Second", "Desc", TaskStatus.COMPLETED));
+
+        MvcResult result = mockMvc.perform(get("/api/tasks")
+                .param("ids", second.getId() + ",9999," + first.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks[*].title", contains("Second", "First")))
+                .andExpect(jsonPath("$.missing", contains(9999)));
+    }
+
+    @Test
+    void lookupTasks_acceptsIdsInBody() throws Exception {
+        Task saved = taskRepository.save(new Task("Lookup", "Desc", TaskStatus.PENDING));
+
+        MvcResult result = mockMvc.perform(post("/api/tasks/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[" + saved.getId() + "]}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks", hasSize(1)))
+                .andExpect(jsonPath("$.tasks[0].title").value("Lookup"))
+                .andExpect(jsonPath("$.missing", hasSize(0)));
+    }
+
+    @Test
+    void lookupTasks_rejectsTooManyIds() throws Exception {
+        String ids = LongStream.rangeClosed(1, 5001)
+                .mapToObj(Long::toString)
+                .collect(Collectors.joining(","));
+
+        mockMvc.perform(post("/api/tasks/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[" + ids + "]}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/tasks/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
 }
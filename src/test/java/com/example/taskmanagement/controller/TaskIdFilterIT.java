@@ -0,0 +1,117 @@
+package com.example.taskmanagement.controller;
+
+import com.example.taskmanagement.model.Task;
+import com.example.taskmanagement.model.TaskStatus;
+import com.example.taskmanagement.repository.TaskRepository;
+import com.example.taskmanagement.service.TaskIdFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:idfiltertest")
+@AutoConfigureMockMvc
+class TaskIdFilterIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskIdFilter taskIdFilter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAll();
+        taskIdFilter.rebuild();
+    }
+
+    @Test
+    void getTaskById_unknownIdIsAnsweredWithoutQuery() throws Exception {
+        double before = avoided();
+
+        mockMvc.perform(get("/api/tasks/{id}", 987_654_321L))
+                .andExpect(status().isNotFound());
+
+        assertEquals(before + 1, avoided());
+    }
+
+    @Test
+    void createdTaskIsFoundAndDeletedTaskIsFilteredOut() throws Exception {
+        String body = mockMvc.perform(post("/api/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Filtered\",\"description\":\"Desc\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(body).get("id").asLong();
+
+        mockMvc.perform(get("/api/tasks/{id}", id))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/tasks/{id}", id))
+                .andExpect(status().isNoContent());
+
+        double before = avoided();
+        mockMvc.perform(get("/api/tasks/{id}", id))
+                .andExpect(status().isNotFound());
+        assertEquals(before + 1, avoided());
+    }
+
+    @Test
+    void taskSavedThroughRepositoryIsFound() throws Exception {
+        Task saved = taskRepository.save(new Task("Direct", "Desc", TaskStatus.PENDING));
+
+        mockMvc.perform(get("/api/tasks/{id}", saved.getId()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void rebuild_keepsExistingTasks() throws Exception {
+        Task saved = taskRepository.save(new Task("Kept", "Desc", TaskStatus.PENDING));
+
+        taskIdFilter.rebuild();
+
+        assertTrue(taskIdFilter.mightContain(saved.getId()));
+        assertFalse(taskIdFilter.mightContain(987_654_321L));
+    }
+
+    @Test
+    void rebuild_keepsIdsThatCommitAfterItsScan() {
+        // Added before the rebuild, committed after it: the scan cannot have seen the row
+        long addedIn = taskIdFilter.add(876_543_210L);
+        taskIdFilter.rebuild();
+        assertFalse(taskIdFilter.mightContain(876_543_210L));
+
+        taskIdFilter.addIfRebuiltSince(addedIn, List.of(876_543_210L));
+
+        assertTrue(taskIdFilter.mightContain(876_543_210L));
+    }
+
+    @Test
+    void startsBeforeTheWebServer() {
+        assertTrue(taskIdFilter.getPhase() < WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024);
+    }
+
+    private double avoided() {
+        return meterRegistry.get("tasks.idfilter.lookups").tag("result", "avoided").counter().count();
+    }
+}
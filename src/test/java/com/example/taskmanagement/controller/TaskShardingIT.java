@@ -0,0 +1,165 @@
+package com.example.taskmanagement.controller;
+
+import com.example.taskmanagement.config.ShardingProperties;
+import com.example.taskmanagement.model.Task;
+import com.example.taskmanagement.model.TaskStatus;
+import com.example.taskmanagement.repository.ShardContext;
+import com.example.taskmanagement.repository.ShardDataSources;
+import com.example.taskmanagement.repository.TaskIdAllocator;
+import com.example.taskmanagement.repository.TaskRepository;
+import com.example.taskmanagement.repository.TaskShards;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shardtest",
+        "tasks.sharding.count=3"
+})
+@AutoConfigureMockMvc
+class TaskShardingIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskShards taskShards;
+
+    @Autowired
+    private TaskIdAllocator taskIdAllocator;
+
+    @Autowired
+    private ShardDataSources shardDataSources;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        for (int shard = 0; shard < taskShards.count(); shard++) {
+            taskShards.onShard(shard, () -> {
+                taskRepository.deleteAllInBatch();
+                return null;
+            });
+        }
+    }
+
+    @Test
+    void createdTasksAreSpreadAcrossShards() throws Exception {
+        List<Long> ids = createTasks(6, TaskStatus.PENDING);
+
+        for (int shard = 0; shard < taskShards.count(); shard++) {
+            long rows = taskShards.onShard(shard, taskRepository::count);
+            assertEquals(2, rows, "shard " + shard);
+        }
+        for (Long id : ids) {
+            mockMvc.perform(get("/api/tasks/{id}", id))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(id));
+        }
+    }
+
+    @Test
+    void listQueriesMergeAllShardsOrderedById() throws Exception {
+        List<Long> pending = createTasks(5, TaskStatus.PENDING);
+        createTasks(2, TaskStatus.COMPLETED);
+
+        mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(7)));
+
+        mockMvc.perform(get("/api/tasks/status/{status}", "PENDING"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(pending.stream().map(Long::intValue).toArray())));
+
+        mockMvc.perform(get("/api/tasks/search").param("title", "completed"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    void updateAndDeleteRouteToOwningShard() throws Exception {
+        List<Long> ids = createTasks(3, TaskStatus.PENDING);
+        Long id = ids.get(2);
+
+        mockMvc.perform(put("/api/tasks/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"IN_PROGRESS\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("IN_PROGRESS"));
+
+        mockMvc.perform(delete("/api/tasks/{id}", id))
+                .andExpect(status().isNoContent());
+
+        assertFalse(taskShards.onShardOf(id, () -> taskRepository.existsById(id)));
+    }
+
+    @Test
+    void onShardBindsOneShardPerTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            taskShards.onShard(2, taskRepository::count);
+            assertEquals(2, ShardContext.current());
+            taskShards.onShard(2, taskRepository::count);
+            assertThrows(IllegalStateException.class, () -> taskShards.onShard(1, taskRepository::count));
+            assertEquals(2, ShardContext.current());
+        });
+
+        assertEquals(0, ShardContext.current());
+        transaction.executeWithoutResult(status -> taskShards.onShard(1, taskRepository::count));
+        assertEquals(0, ShardContext.current());
+    }
+
+    @Test
+    void idBlocksDoNotOverlapWhenTheBlockSizeChanges() {
+        long before = taskIdAllocator.nextId();
+
+        long larger = allocator(5000).nextId();
+        long after = allocator(1000).nextId();
+
+        assertTrue(larger > before);
+        assertTrue(after >= larger + 5000);
+    }
+
+    private TaskIdAllocator allocator(int blockSize) {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setIdBlockSize(blockSize);
+        return new TaskIdAllocator(shardDataSources, properties);
+    }
+
+    private List<Long> createTasks(int count, TaskStatus status) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Task request = new Task("Task " + status + " " + i, "Desc", status);
+            String body = mockMvc.perform(post("/api/tasks")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            ids.add(objectMapper.readTree(body).get("id").asLong());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,310 @@
+package com.example.taskmanagement.controller;
+
+import com.example.taskmanagement.TaskManagementApplication;
+import com.example.taskmanagement.audit.AuditAction;
+import com.example.taskmanagement.audit.AuditLog;
+import com.example.taskmanagement.model.Task;
+import com.example.taskmanagement.model.TaskStatus;
+import com.example.taskmanagement.repository.TaskIdAllocator;
+import com.example.taskmanagement.repository.TaskRepository;
+import com.example.taskmanagement.repository.TaskShards;
+import com.example.taskmanagement.service.TaskService;
+import com.example.taskmanagement.transfer.TaskExporter;
+import com.example.taskmanagement.transfer.TransferFormat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transfertest",
+        "tasks.sharding.count=2",
+        "tasks.transfer.batch-size=2",
+        "tasks.transfer.progress-interval=2",
+        "tasks.transfer.max-row-length=1000",
+        "tasks.transfer.restore-endpoint-enabled=true"
+})
+@AutoConfigureMockMvc
+class TaskTransferIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskShards taskShards;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskIdAllocator taskIdAllocator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @SpyBean
+    private AuditLog auditLog;
+
+    @BeforeEach
+    void setUp() {
+        deleteAllTasks();
+    }
+
+    @Test
+    void exportThenImport_restoresTasksWithTheirIds() throws Exception {
+        for (String format : List.of("ndjson", "csv")) {
+            deleteAllTasks();
+            List<Task> original = createTasks();
+
+            byte[] exported = mockMvc.perform(get("/api/tasks/export").param("format", format))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Disposition", containsString("tasks." + format)))
+                    .andReturn().getResponse().getContentAsByteArray();
+            deleteAllTasks();
+
+            JsonNode report = importTasks(format, exported);
+            assertEquals(3, report.get("imported").asLong(), format);
+            assertEquals(0, report.get("rejected").asLong(), format);
+            assertRestored(original);
+        }
+    }
+
+    @Test
+    void gzipExport_canBeImportedAsIs() throws Exception {
+        List<Task> original = createTasks();
+
+        byte[] exported = mockMvc.perform(get("/api/tasks/export").param("format", "csv").param("gzip", "true"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(exported)).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith("id,title,description,status,priority,due_at,created_at,updated_at\r\n"));
+        deleteAllTasks();
+
+        importTasks("csv", exported);
+        assertRestored(original);
+    }
+
+    @Test
+    void importTasks_reportsProgressAndRejectedRows() throws Exception {
+        String ndjson = """
+                {"title": "One"}
+                {"title": ""}
+                not json
+                {"title": "Two", "status": "IN_PROGRESS", "priority": "HIGH"}
+
+                {"title": "Three"}
+                """;
+
+        String body = mockMvc.perform(post("/api/tasks/import").content(ndjson))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<JsonNode> lines = body.lines().map(this::readTree).toList();
+        assertTrue(lines.size() > 1);
+        assertFalse(lines.get(0).get("done").asBoolean());
+        JsonNode report = lines.get(lines.size() - 1);
+        assertTrue(report.get("done").asBoolean());
+        assertEquals(5, report.get("rowsRead").asLong());
+        assertEquals(3, report.get("imported").asLong());
+        assertEquals(2, report.get("rejected").asLong());
+        assertEquals(List.of(2, 3), report.get("errors").findValues("line").stream().map(JsonNode::asInt).toList());
+        assertEquals(3, taskService.getAllTasks().size());
+        verify(auditLog, times(3)).record(eq(AuditAction.IMPORT), anyLong(), isNull(), any());
+    }
+
+    @Test
+    void importTasks_rejectsRowsLongerThanTheLimit() throws Exception {
+        String longTitle = "x".repeat(2000);
+        JsonNode ndjson = importTasks("ndjson", ("{\"title\": \"" + longTitle + "\"}\n{\"title\": \"Short\"}\n")
+                .getBytes(StandardCharsets.UTF_8));
+        JsonNode csv = importTasks("csv", ("title\n\"" + longTitle + "\"\nShort\n").getBytes(StandardCharsets.UTF_8));
+
+        for (JsonNode report : List.of(ndjson, csv)) {
+            assertEquals(1, report.get("imported").asLong());
+            assertEquals(1, report.get("rejected").asLong());
+            assertEquals("row is longer than 1000 characters", report.get("errors").get(0).get("message").asText());
+        }
+        assertEquals(2, taskService.getAllTasks().size());
+    }
+
+    // Few ids are allocated in this context, so nextId() + 50 stays within the block being handed out
+    @Test
+    void importTasks_keepsAllocatedIdsAboveImportedOnes() throws Exception {
+        long imported = taskIdAllocator.nextId() + 50;
+        importTasks("ndjson", ("{\"id\": " + imported + ", \"title\": \"Explicit\"}\n{\"title\": \"Allocated\"}\n")
+                .getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(taskShards.onShardOf(imported, () -> taskRepository.existsById(imported)));
+        assertTrue(taskIdAllocator.nextId() > imported);
+    }
+
+    @Test
+    void importTasks_rejectsIdsThatWereNeverAllocated() throws Exception {
+        long unallocated = Long.MAX_VALUE - 1;
+        JsonNode report = importTasks("ndjson", ("{\"id\": " + unallocated + ", \"title\": \"Forged\"}\n")
+                .getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(0, report.get("imported").asLong());
+        assertEquals(1, report.get("rejected").asLong());
+        assertFalse(taskShards.onShardOf(unallocated, () -> taskRepository.existsById(unallocated)));
+        assertTrue(taskIdAllocator.nextId() < 1_000_000);
+    }
+
+    // The backup comes from another instance whose ids are past the first block this database's
+    // sequence hands out, like a restore after the database was recreated
+    @Test
+    void restoreTasks_keepsIdsFromAnotherDatabaseAndMovesTheSequencePastThem() throws Exception {
+        byte[] exported;
+        List<Task> original;
+        try (ConfigurableApplicationContext source = new SpringApplicationBuilder(TaskManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:transfersource", "--tasks.sharding.count=2")) {
+            TaskIdAllocator sourceIds = source.getBean(TaskIdAllocator.class);
+            // Skips ahead as a long-lived instance would have
+            long skipped;
+            do {
+                skipped = sourceIds.nextId();
+            } while (skipped < 5_000);
+            original = createTasks(source.getBean(TaskService.class));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            source.getBean(TaskExporter.class).export(TransferFormat.NDJSON, false, out);
+            exported = out.toByteArray();
+        }
+        assertTrue(original.get(0).getId() > 5_000);
+
+        JsonNode rejected = importTasks("ndjson", exported);
+        assertEquals(0, rejected.get("imported").asLong());
+        assertEquals(3, rejected.get("rejected").asLong());
+
+        JsonNode restored = importTasks("/api/admin/tasks/import", "ndjson", exported);
+        assertEquals(3, restored.get("imported").asLong());
+        assertEquals(0, restored.get("rejected").asLong());
+        assertRestored(original);
+        assertTrue(taskIdAllocator.nextId() > original.get(original.size() - 1).getId());
+    }
+
+    @Test
+    void restoreTasks_stillRejectsIdsWithNoRoomAboveThem() throws Exception {
+        long forged = Long.MAX_VALUE - 1;
+        JsonNode report = importTasks("/api/admin/tasks/import", "ndjson",
+                ("{\"id\": " + forged + ", \"title\": \"Forged\"}\n").getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(0, report.get("imported").asLong());
+        assertEquals(1, report.get("rejected").asLong());
+        assertTrue(taskIdAllocator.nextId() < 1_000_000);
+    }
+
+    @Test
+    void importTasks_evictsCachedCopiesOfOverwrittenTasks() throws Exception {
+        Task task = taskService.createTask(new Task("Before", "Desc", TaskStatus.PENDING));
+        mockMvc.perform(get("/api/tasks/{id}", task.getId()))
+                .andExpect(jsonPath("$.title").value("Before"));
+        mockMvc.perform(get("/api/tasks/search").param("title", "After"))
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        importTasks("csv", ("id,title,status\n" + task.getId() + ",After,COMPLETED\n").getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(get("/api/tasks/{id}", task.getId()))
+                .andExpect(jsonPath("$.title").value("After"))
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+        mockMvc.perform(get("/api/tasks/search").param("title", "After"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void unknownFormat_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/tasks/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/tasks/import").param("format", "xml").content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void deleteAllTasks() {
+        for (int shard = 0; shard < taskShards.count(); shard++) {
+            taskShards.onShard(shard, () -> {
+                taskRepository.deleteAllInBatch();
+                return null;
+            });
+        }
+    }
+
+    private List<Task> createTasks() {
+        return createTasks(taskService);
+    }
+
+    private static List<Task> createTasks(TaskService taskService) {
+        return Stream.of(
+                        new Task("Plain", "Simple description", TaskStatus.PENDING),
+                        new Task("Quoted, \"tricky\"", "Line one\nline two, with comma", TaskStatus.IN_PROGRESS),
+                        new Task("No description", null, TaskStatus.COMPLETED))
+                .map(taskService::createTask)
+                .toList();
+    }
+
+    // getAllTasks merges the shards ordered by id, and ids are allocated in creation order
+    private void assertRestored(List<Task> original) {
+        List<Task> restored = taskService.getAllTasks();
+        assertEquals(original.size(), restored.size());
+        for (int i = 0; i < original.size(); i++) {
+            Task expected = original.get(i);
+            Task actual = restored.get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getTitle(), actual.getTitle());
+            assertEquals(expected.getDescription(), actual.getDescription());
+            assertEquals(expected.getStatus(), actual.getStatus());
+            assertEquals(expected.getPriority(), actual.getPriority());
+            assertEquals(expected.getCreatedAt().withNano(0), actual.getCreatedAt().withNano(0));
+        }
+    }
+
+    private JsonNode importTasks(String format, byte[] content) throws Exception {
+        return importTasks("/api/tasks/import", format, content);
+    }
+
+    private JsonNode importTasks(String url, String format, byte[] content) throws Exception {
+        String body = mockMvc.perform(post(url).param("format", format).content(content))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<String> lines = body.lines().toList();
+        JsonNode report = readTree(lines.get(lines.size() - 1));
+        assertTrue(report.get("done").asBoolean());
+        assertFalse(report.has("failure"), body);
+        return report;
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
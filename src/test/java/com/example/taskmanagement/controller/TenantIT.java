@@ -0,0 +1,172 @@
+package com.example.taskmanagement.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tenanttest",
+        "tasks.tenancy.quotas.small.max-tasks=2",
+        "tasks.tenancy.quotas.tiny.max-tasks=2"
+})
+@AutoConfigureMockMvc
+class TenantIT {
+
+    private static final String TENANT = "X-Tenant-ID";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void tasksAreOnlyVisibleToTheirTenant() throws Exception {
+        long id = createTask("acme", "Quarterly plan");
+
+        mockMvc.perform(get("/api/tasks/{id}", id).header(TENANT, "acme"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Quarterly plan"))
+                .andExpect(jsonPath("$.tenantId").doesNotExist());
+        mockMvc.perform(get("/api/tasks/search?title=quarterly").header(TENANT, "acme"))
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        mockMvc.perform(get("/api/tasks/{id}", id).header(TENANT, "globex"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/tasks/{id}", id))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/tasks/search?title=quarterly").header(TENANT, "globex"))
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/tasks/status/PENDING").header(TENANT, "globex"))
+                .andExpect(jsonPath("$[*].id", not(hasItem((int) id))));
+        mockMvc.perform(get("/api/tasks").header(TENANT, "globex"))
+                .andExpect(jsonPath("$[*].id", not(hasItem((int) id))));
+        MvcResult lookup = mockMvc.perform(get("/api/tasks").param("ids", Long.toString(id)).header(TENANT, "globex"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(lookup))
+                .andExpect(jsonPath("$.tasks", hasSize(0)))
+                .andExpect(jsonPath("$.missing", contains((int) id)));
+    }
+
+    @Test
+    void otherTenantsCannotModifyTasks() throws Exception {
+        long id = createTask("acme", "Guarded");
+
+        mockMvc.perform(put("/api/tasks/{id}", id)
+                        .header(TENANT, "globex")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Taken\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/tasks/{id}", id).header(TENANT, "globex"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/tasks/{id}", id).header(TENANT, "acme"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Guarded"));
+    }
+
+    @Test
+    void dueTasksAreListedPerTenant() throws Exception {
+        String body = mockMvc.perform(post("/api/tasks")
+                        .header(TENANT, "initech")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Due soon\",\"dueAt\":\"" + LocalDateTime.now().plusMinutes(30) + "\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(body).get("id").asLong();
+
+        mockMvc.perform(get("/api/tasks/due").param("within", "PT1H").header(TENANT, "initech"))
+                .andExpect(jsonPath("$[*].id", contains((int) id)))
+                .andExpect(jsonPath("$[0].tenantId").doesNotExist());
+        mockMvc.perform(get("/api/tasks/due").param("within", "PT1H").header(TENANT, "umbrella"))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void createsBeyondTheTaskQuotaAreRejected() throws Exception {
+        long first = createTask("small", "One");
+        createTask("small", "Two");
+
+        mockMvc.perform(post("/api/tasks")
+                        .header(TENANT, "small")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Three\"}"))
+                .andExpect(status().isForbidden());
+        createTask("acme", "Unaffected");
+
+        mockMvc.perform(delete("/api/tasks/{id}", first).header(TENANT, "small"))
+                .andExpect(status().isNoContent());
+        createTask("small", "Three");
+    }
+
+    @Test
+    void importCannotOverwriteTasksOfOtherTenants() throws Exception {
+        long id = createTask("acme", "Original");
+
+        String body = mockMvc.perform(post("/api/tasks/import")
+                        .header(TENANT, "globex")
+                        .content("{\"id\": " + id + ", \"title\": \"Overwritten\"}\n{\"title\": \"Imported\"}\n"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<String> lines = body.lines().toList();
+        JsonNode report = objectMapper.readTree(lines.get(lines.size() - 1));
+        assertEquals(1, report.get("imported").asLong());
+        assertEquals(1, report.get("rejected").asLong());
+
+        mockMvc.perform(get("/api/tasks/{id}", id).header(TENANT, "acme"))
+                .andExpect(jsonPath("$.title").value("Original"));
+        String exported = mockMvc.perform(get("/api/tasks/export").header(TENANT, "globex"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(1, exported.lines().count());
+        assertTrue(exported.contains("\"Imported\""));
+    }
+
+    @Test
+    void failedImportsGiveTheirQuotaBack() throws Exception {
+        String body = mockMvc.perform(post("/api/tasks/import")
+                        .param("format", "csv")
+                        .header(TENANT, "tiny")
+                        .content("title\nOne\nTwo\n\"never closed\n"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<String> lines = body.lines().toList();
+        JsonNode report = objectMapper.readTree(lines.get(lines.size() - 1));
+        assertTrue(report.has("failure"));
+        assertEquals(0, report.get("imported").asLong());
+
+        createTask("tiny", "One");
+        createTask("tiny", "Two");
+    }
+
+    @Test
+    void malformedTenantIsRejected() throws Exception {
+        mockMvc.perform(get("/api/tasks").header(TENANT, "not a tenant"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long createTask(String tenant, String title) throws Exception {
+        String body = mockMvc.perform(post("/api/tasks")
+                        .header(TENANT, tenant)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"" + title + "\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+}
@@ -7,6 +7,7 @@ import jakarta.validation.ValidatorFactory;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDateTime;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,6 +39,31 @@ class TaskTest {
         assertEquals(TaskStatus.PENDING, task.getStatus());
     }
 
+    @Test
+    void copyConstructor_copiesEveryField() {
+        Task task = new Task("Title", "Description", TaskStatus.IN_PROGRESS);
+        task.setId(3L);
+        task.setTenantId("acme");
+        task.setPriority(TaskPriority.HIGH);
+        task.setDueAt(LocalDateTime.of(2030, 1, 1, 9, 0));
+        task.setCreatedAt(LocalDateTime.of(2029, 1, 1, 9, 0));
+        task.setUpdatedAt(LocalDateTime.of(2029, 6, 1, 9, 0));
+
+        Task copy = new Task(task);
+
+        assertNotSame(task, copy);
+        assertEquals(task.getId(), copy.getId());
+        assertEquals(task.getTenantId(), copy.getTenantId());
+        assertEquals(task.getTitle(), copy.getTitle());
+        assertEquals(task.getDescription(), copy.getDescription());
+        assertEquals(task.getStatus(), copy.getStatus());
+        assertEquals(task.getPriority(), copy.getPriority());
+        assertEquals(task.getDueAt(), copy.getDueAt());
+        assertEquals(task.getCreatedAt(), copy.getCreatedAt());
+        assertEquals(task.getUpdatedAt(), copy.getUpdatedAt());
+        assertEquals(task.isNew(), copy.isNew());
+    }
+
     @Test
     void defaultConstructor_createsEmptyTask() {
         Task task = new Task();
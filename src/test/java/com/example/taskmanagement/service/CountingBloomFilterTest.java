@@ -0,0 +1,67 @@
+package com.example.taskmanagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountingBloomFilterTest {
+
+    @Test
+    void mightContain_hasNoFalseNegatives() {
+        CountingBloomFilter filter = CountingBloomFilter.forExpectedKeys(10_000, 0.01, Long.MAX_VALUE);
+        for (long key = 1; key <= 10_000; key++) {
+            filter.add(key);
+        }
+
+        for (long key = 1; key <= 10_000; key++) {
+            assertTrue(filter.mightContain(key));
+        }
+    }
+
+    @Test
+    void mightContain_staysNearConfiguredFalsePositiveRate() {
+        CountingBloomFilter filter = CountingBloomFilter.forExpectedKeys(10_000, 0.01, Long.MAX_VALUE);
+        for (long key = 1; key <= 10_000; key++) {
+            filter.add(key);
+        }
+
+        int falsePositives = 0;
+        for (long key = 1_000_000; key < 1_100_000; key++) {
+            if (filter.mightContain(key)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        assertEquals(0.01, filter.falsePositiveRate(10_000), 0.002);
+    }
+
+    @Test
+    void remove_forgetsKeyWithoutAffectingOthers() {
+        CountingBloomFilter filter = CountingBloomFilter.forExpectedKeys(1_000, 0.001, Long.MAX_VALUE);
+        for (long key = 1; key <= 1_000; key++) {
+            filter.add(key);
+        }
+
+        for (long key = 1; key <= 1_000; key += 2) {
+            filter.remove(key);
+        }
+
+        for (long key = 2; key <= 1_000; key += 2) {
+            assertTrue(filter.mightContain(key));
+        }
+        long stillReported = 0;
+        for (long key = 1; key <= 1_000; key += 2) {
+            if (filter.mightContain(key)) {
+                stillReported++;
+            }
+        }
+        assertTrue(stillReported < 10, "removed keys still reported: " + stillReported);
+    }
+
+    @Test
+    void forExpectedKeys_respectsMemoryCap() {
+        CountingBloomFilter filter = CountingBloomFilter.forExpectedKeys(1_000_000, 0.01, 16 * 1024);
+
+        assertEquals(8 * 1024, filter.sizeInBytes());
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.config.SingleFlightProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_sharesOneQueryBetweenConcurrentCallers() throws Exception {
+        SingleFlight singleFlight = singleFlight(Duration.ofSeconds(5));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            queries.incrementAndGet();
+            await(release);
+            return "result";
+        }));
+        waitForCalls("leader", 1);
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                queries.incrementAndGet();
+                return "own";
+            })));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals("result", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("result", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, queries.get());
+        assertEquals(5, calls("coalesced"));
+    }
+
+    @Test
+    void execute_doesNotJoinQueryStartedBeforeMutation() throws Exception {
+        SingleFlight singleFlight = singleFlight(Duration.ofSeconds(5));
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> stale = executor.submit(() -> singleFlight.execute("key", () -> {
+            await(release);
+            return "before";
+        }));
+        waitForCalls("leader", 1);
+        singleFlight.invalidateAfterCommit();
+
+        assertEquals("after", singleFlight.execute("key", () -> "after"));
+        release.countDown();
+        assertEquals("before", stale.get(5, TimeUnit.SECONDS));
+        assertEquals(0, calls("coalesced"));
+    }
+
+    @Test
+    void execute_runsOwnQueryWhenWaitIsExceeded() throws Exception {
+        SingleFlight singleFlight = singleFlight(Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> slow = executor.submit(() -> singleFlight.execute("key", () -> {
+            await(release);
+            return "slow";
+        }));
+        waitForCalls("leader", 1);
+
+        assertEquals("fast", singleFlight.execute("key", () -> "fast"));
+        release.countDown();
+        assertEquals("slow", slow.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls("timeout"));
+    }
+
+    @Test
+    void execute_propagatesLeaderFailureAndRecovers() {
+        SingleFlight singleFlight = singleFlight(Duration.ofSeconds(1));
+
+        assertThrows(IllegalArgumentException.class, () -> singleFlight.execute("key", () -> {
+            throw new IllegalArgumentException("boom");
+        }));
+        assertEquals("ok", singleFlight.execute("key", () -> "ok"));
+    }
+
+    private SingleFlight singleFlight(Duration maxWait) {
+        SingleFlightProperties properties = new SingleFlightProperties();
+        properties.setMaxWait(maxWait);
+        return new SingleFlight(properties, meterRegistry);
+    }
+
+    private double calls(String role) {
+        return meterRegistry.counter("tasks.singleflight.calls", "role", role).count();
+    }
+
+    private void waitForCalls(String role, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (calls(role) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
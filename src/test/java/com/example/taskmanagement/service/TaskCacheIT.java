@@ -0,0 +1,75 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.dto.TaskUpdateDTO;
+import com.example.taskmanagement.model.Task;
+import com.example.taskmanagement.model.TaskStatus;
+import com.example.taskmanagement.repository.TaskRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TaskCacheIT {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getTasksByStatus_isServedFromQueryCacheOnRepeat() {
+        taskService.createTask(new Task("Cached", "Desc", TaskStatus.PENDING));
+
+        taskService.getTasksByStatus(TaskStatus.PENDING);
+        long misses = statistics.getQueryCacheMissCount();
+        List<Task> repeated = taskService.getTasksByStatus(TaskStatus.PENDING);
+
+        assertEquals(1, repeated.size());
+        assertEquals(misses, statistics.getQueryCacheMissCount());
+        assertTrue(statistics.getQueryCacheHitCount() >= 1);
+    }
+
+    @Test
+    void updateTask_invalidatesCachedStatusListings() {
+        Task created = taskService.createTask(new Task("Move me", "Desc", TaskStatus.PENDING));
+        assertEquals(1, taskService.getTasksByStatus(TaskStatus.PENDING).size());
+        assertEquals(0, taskService.getTasksByStatus(TaskStatus.COMPLETED).size());
+
+        taskService.updateTask(created.getId(), new TaskUpdateDTO(null, null, TaskStatus.COMPLETED));
+
+        assertEquals(0, taskService.getTasksByStatus(TaskStatus.PENDING).size());
+        assertEquals(1, taskService.getTasksByStatus(TaskStatus.COMPLETED).size());
+        assertEquals(TaskStatus.COMPLETED, taskService.getTaskById(created.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void searchTasksByTitle_treatsWildcardsLiterally() {
+        taskService.createTask(new Task("100% done", "Desc", TaskStatus.PENDING));
+        taskService.createTask(new Task("1000 items", "Desc", TaskStatus.PENDING));
+
+        assertEquals(1, taskService.searchTasksByTitle("0%").size());
+        assertEquals(2, taskService.searchTasksByTitle("10").size());
+    }
+}
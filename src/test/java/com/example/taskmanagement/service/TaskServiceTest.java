@@ -1,21 +1,39 @@
 package com.example.taskmanagement.service;
 
+import com.example.taskmanagement.audit.AuditAction;
+import com.example.taskmanagement.audit.AuditLog;
+import com.example.taskmanagement.config.BatchLookupProperties;
+import com.example.taskmanagement.config.ShardingProperties;
+import com.example.taskmanagement.config.SingleFlightProperties;
+import com.example.taskmanagement.config.TaskIdFilterProperties;
+import com.example.taskmanagement.config.TenancyProperties;
+import com.example.taskmanagement.dto.TaskLookupResult;
 import com.example.taskmanagement.dto.TaskUpdateDTO;
 import com.example.taskmanagement.model.Task;
+import com.example.taskmanagement.model.TaskPriority;
 import com.example.taskmanagement.model.TaskStatus;
+import com.example.taskmanagement.repository.TaskIdAllocator;
 import com.example.taskmanagement.repository.TaskRepository;
+import com.example.taskmanagement.repository.TaskShards;
+import com.example.taskmanagement.tenant.TaskQuotaExceededException;
+import com.example.taskmanagement.tenant.TenantQuotas;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.lang.NonNull;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +48,37 @@ class TaskServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private TaskIdAllocator taskIdAllocator;
+
+    @Mock
+    private AuditLog auditLog;
+
+    @Mock
+    private TaskArchive taskArchive;
+
+    @Mock
+    private DueTaskIndex dueTaskIndex;
+
+    @Mock
+    private TenantQuotas tenantQuotas;
+
+    @Spy
+    private TaskShards taskShards = new TaskShards(new ShardingProperties(), null);
+
+    @Spy
+    private BatchLookupProperties batchLookupProperties = new BatchLookupProperties();
+
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(new SingleFlightProperties(), new SimpleMeterRegistry());
+
+    @Spy
+    private TaskVersions taskVersions = new TaskVersions(new TenancyProperties());
+
+    // Never started, so it treats every id as possibly present until a test says otherwise
+    @Spy
+    private TaskIdFilter taskIdFilter = new TaskIdFilter(new TaskIdFilterProperties(), null, new SimpleMeterRegistry());
+
     @InjectMocks
     private TaskService taskService;
 
@@ -54,6 +103,7 @@ class TaskServiceTest {
     void updateTask_updatesProvidedFieldsOnly() {
         Task existing = new Task("Old title", "Old description", TaskStatus.PENDING);
         existing.setId(1L);
+        existing.setTenantId("default");
 
         TaskUpdateDTO updates = new TaskUpdateDTO();
         updates.setTitle("New title");
@@ -72,6 +122,41 @@ class TaskServiceTest {
         verify(taskRepository).save(existing);
     }
 
+    @Test
+    void updateTask_recordsStatusTransition() {
+        Task existing = new Task("Title", "Desc", TaskStatus.PENDING);
+        existing.setId(1L);
+        existing.setTenantId("default");
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(taskRepository.save(anyNonNull(Task.class)))
+            .thenAnswer(invocation -> invocation.getArgument(0, Task.class));
+
+        taskService.updateTask(1L, new TaskUpdateDTO(null, null, TaskStatus.COMPLETED));
+
+        verify(auditLog).record(AuditAction.UPDATE, 1L, TaskStatus.PENDING, TaskStatus.COMPLETED);
+    }
+
+    @Test
+    void updateTask_setsDueDateAndPriorityAndReindexes() {
+        Task existing = new Task("Title", "Desc", TaskStatus.PENDING);
+        existing.setId(1L);
+        existing.setTenantId("default");
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(taskRepository.save(anyNonNull(Task.class)))
+            .thenAnswer(invocation -> invocation.getArgument(0, Task.class));
+        LocalDateTime dueAt = LocalDateTime.of(2030, 1, 15, 9, 0);
+        TaskUpdateDTO updates = new TaskUpdateDTO();
+        updates.setDueAt(dueAt);
+        updates.setPriority(TaskPriority.HIGH);
+
+        Optional<Task> result = taskService.updateTask(1L, updates);
+
+        assertTrue(result.isPresent());
+        assertEquals(dueAt, result.get().getDueAt());
+        assertEquals(TaskPriority.HIGH, result.get().getPriority());
+        verify(dueTaskIndex).updateAfterCommit(existing);
+    }
+
     @Test
     void deleteTask_returnsFalseWhenMissing() {
         when(taskRepository.findById(99L)).thenReturn(Optional.empty());
@@ -80,12 +165,13 @@ class TaskServiceTest {
 
         assertFalse(deleted);
         verify(taskRepository, never()).delete(anyNonNull(Task.class));
+        verifyNoInteractions(auditLog);
     }
 
     @Test
     void getTasksByStatus_returnsRepositoryResults() {
         Task task = new Task("Task", "Desc", TaskStatus.COMPLETED);
-        when(taskRepository.findByStatus(TaskStatus.COMPLETED)).thenReturn(List.of(task));
+        when(taskRepository.findByTenantIdAndStatus("default", TaskStatus.COMPLETED)).thenReturn(List.of(task));
 
         List<Task> results = taskService.getTasksByStatus(TaskStatus.COMPLETED);
 
@@ -97,18 +183,19 @@ class TaskServiceTest {
     void getAllTasks_returnsAllTasks() {
         Task task1 = new Task("Task 1", "Desc 1", TaskStatus.PENDING);
         Task task2 = new Task("Task 2", "Desc 2", TaskStatus.COMPLETED);
-        when(taskRepository.findAll()).thenReturn(List.of(task1, task2));
+        when(taskRepository.findByTenantId("default")).thenReturn(List.of(task1, task2));
 
         List<Task> results = taskService.getAllTasks();
 
         assertEquals(2, results.size());
-        verify(taskRepository).findAll();
+        verify(taskRepository).findByTenantId("default");
     }
 
     @Test
     void getTaskById_returnsTask() {
         Task task = new Task("Task", "Desc", TaskStatus.PENDING);
         task.setId(1L);
+        task.setTenantId("default");
         when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
 
         Optional<Task> result = taskService.getTaskById(1L);
@@ -118,6 +205,21 @@ class TaskServiceTest {
         verify(taskRepository).findById(1L);
     }
 
+    @Test
+    void getTaskById_handsOutCopiesOfTheLoadedEntity() {
+        Task task = new Task("Task", "Desc", TaskStatus.PENDING);
+        task.setId(1L);
+        task.setTenantId("default");
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+
+        Task first = taskService.getTaskById(1L).orElseThrow();
+        Task second = taskService.getTaskById(1L).orElseThrow();
+
+        assertNotSame(task, first);
+        assertNotSame(first, second);
+        assertEquals(task.getTitle(), first.getTitle());
+    }
+
     @Test
     void getTaskById_returnsEmptyWhenNotFound() {
         when(taskRepository.findById(99L)).thenReturn(Optional.empty());
@@ -128,28 +230,79 @@ class TaskServiceTest {
         verify(taskRepository).findById(99L);
     }
 
+    @Test
+    void getTaskById_skipsRepositoryWhenIdFilterRulesItOut() {
+        doReturn(false).when(taskIdFilter).mightContain(99L);
+
+        Optional<Task> result = taskService.getTaskById(99L);
+
+        assertFalse(result.isPresent());
+        verifyNoInteractions(taskRepository, taskArchive);
+    }
+
+    @Test
+    void getTaskById_hidesTasksOfOtherTenants() {
+        Task task = new Task("Task", "Desc", TaskStatus.PENDING);
+        task.setId(1L);
+        task.setTenantId("other");
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+
+        assertFalse(taskService.getTaskById(1L).isPresent());
+        assertFalse(taskService.deleteTask(1L));
+        verify(taskRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void getTaskById_fallsThroughToArchive() {
+        Task archived = new Task("Old", "Desc", TaskStatus.COMPLETED);
+        archived.setId(7L);
+        archived.setTenantId("default");
+        when(taskRepository.findById(7L)).thenReturn(Optional.empty());
+        when(taskArchive.find(7L)).thenReturn(Optional.of(archived));
+
+        Optional<Task> result = taskService.getTaskById(7L);
+
+        assertTrue(result.isPresent());
+        assertEquals(TaskStatus.COMPLETED, result.get().getStatus());
+    }
+
     @Test
     void searchTasksByTitle_returnsMatchingTasks() {
         Task task1 = new Task("Write tests", "Unit tests", TaskStatus.PENDING);
         Task task2 = new Task("Write docs", "Documentation", TaskStatus.PENDING);
-        when(taskRepository.findByTitleContainingIgnoreCase("write"))
+        when(taskRepository.findByTenantIdAndTitleContainingIgnoreCase("default", "write"))
             .thenReturn(List.of(task1, task2));
 
         List<Task> results = taskService.searchTasksByTitle("write");
 
         assertEquals(2, results.size());
-        verify(taskRepository).findByTitleContainingIgnoreCase("write");
+        verify(taskRepository).findByTenantIdAndTitleContainingIgnoreCase("default", "write");
     }
 
     @Test
     void searchTasksByTitle_returnsEmptyWhenNoMatches() {
-        when(taskRepository.findByTitleContainingIgnoreCase("nonexistent"))
+        when(taskRepository.findByTenantIdAndTitleContainingIgnoreCase("default", "nonexistent"))
             .thenReturn(List.of());
 
         List<Task> results = taskService.searchTasksByTitle("nonexistent");
 
         assertTrue(results.isEmpty());
-        verify(taskRepository).findByTitleContainingIgnoreCase("nonexistent");
+        verify(taskRepository).findByTenantIdAndTitleContainingIgnoreCase("default", "nonexistent");
+    }
+
+    @Test
+    void createTask_assignsAllocatedId() {
+        Task input = new Task("Task", "Desc", null);
+        input.setId(5L);
+        when(taskIdAllocator.nextId()).thenReturn(42L);
+        when(taskRepository.save(anyNonNull(Task.class)))
+            .thenAnswer(invocation -> invocation.getArgument(0, Task.class));
+
+        Task result = taskService.createTask(input);
+
+        assertEquals(42L, result.getId());
+        assertEquals("default", result.getTenantId());
+        assertTrue(result.isNew());
     }
 
     @Test
@@ -163,6 +316,60 @@ class TaskServiceTest {
         verify(taskRepository).save(input);
     }
 
+    @Test
+    void createTask_rejectedWhenTenantQuotaIsUsedUp() {
+        doThrow(new TaskQuotaExceededException("default", 10)).when(tenantQuotas).reserveTasks("default", 1);
+
+        assertThrows(TaskQuotaExceededException.class, () -> taskService.createTask(new Task("Task", "Desc", null)));
+        verify(taskRepository, never()).save(any());
+    }
+
+    @Test
+    void createTask_givesTheReservationBackOnRollback() {
+        when(taskRepository.save(anyNonNull(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        taskService.createTask(new Task("Task", "Desc", null));
+
+        InOrder inOrder = inOrder(tenantQuotas, taskRepository);
+        inOrder.verify(tenantQuotas).reserveTasks("default", 1);
+        inOrder.verify(tenantQuotas).releaseTasksOnRollback("default", 1);
+        inOrder.verify(taskRepository).save(anyNonNull(Task.class));
+    }
+
+    @Test
+    void restoreTask_reservesBeforeTheRowMoves() {
+        Task archived = new Task("Old", "Desc", TaskStatus.COMPLETED);
+        archived.setId(7L);
+        archived.setTenantId("default");
+        when(taskArchive.restore(7L, "default")).thenReturn(Optional.of(archived));
+
+        assertTrue(taskService.restoreTask(7L).isPresent());
+
+        InOrder inOrder = inOrder(tenantQuotas, taskArchive);
+        inOrder.verify(tenantQuotas).reserveTasks("default", 1);
+        inOrder.verify(tenantQuotas).releaseTasksOnRollback("default", 1);
+        inOrder.verify(taskArchive).restore(7L, "default");
+        verify(tenantQuotas, never()).releaseTasksAfterCommit(any(), anyLong());
+    }
+
+    @Test
+    void restoreTask_releasesTheReservationWhenNothingIsRestored() {
+        when(taskArchive.restore(7L, "default")).thenReturn(Optional.empty());
+
+        assertFalse(taskService.restoreTask(7L).isPresent());
+
+        verify(tenantQuotas).reserveTasks("default", 1);
+        verify(tenantQuotas).releaseTasksAfterCommit("default", 1);
+    }
+
+    @Test
+    void restoreTask_leavesTheRowArchivedWhenTenantQuotaIsUsedUp() {
+        doThrow(new TaskQuotaExceededException("default", 10)).when(tenantQuotas).reserveTasks("default", 1);
+
+        assertThrows(TaskQuotaExceededException.class, () -> taskService.restoreTask(7L));
+        verifyNoInteractions(taskArchive);
+    }
+
     @Test
     void updateTask_returnsEmptyWhenTaskNotFound() {
         TaskUpdateDTO updates = new TaskUpdateDTO("New", "Desc", TaskStatus.COMPLETED);
@@ -178,6 +385,7 @@ class TaskServiceTest {
     void updateTask_doesNotUpdateNullFields() {
         Task existing = new Task("Old title", "Old description", TaskStatus.PENDING);
         existing.setId(1L);
+        existing.setTenantId("default");
 
         TaskUpdateDTO updates = new TaskUpdateDTO();
         updates.setTitle(null);
@@ -200,6 +408,7 @@ class TaskServiceTest {
     void updateTask_updatesOnlyTitle() {
         Task existing = new Task("Old", "Desc", TaskStatus.PENDING);
         existing.setId(1L);
+        existing.setTenantId("default");
 
         TaskUpdateDTO updates = new TaskUpdateDTO();
         updates.setTitle("New Title");
@@ -220,6 +429,7 @@ class TaskServiceTest {
     void deleteTask_returnsTrueWhenExists() {
         Task task = new Task("Task", "Desc", TaskStatus.PENDING);
         task.setId(1L);
+        task.setTenantId("default");
         when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
 
         boolean deleted = taskService.deleteTask(1L);
@@ -228,13 +438,31 @@ class TaskServiceTest {
         verify(taskRepository).deleteById(1L);
     }
 
+    @Test
+    void getTasksByIds_keepsRequestOrderAndReportsMissing() {
+        batchLookupProperties.setChunkSize(2);
+        Task first = new Task("First", "Desc", TaskStatus.PENDING);
+        first.setId(1L);
+        first.setTenantId("default");
+        Task third = new Task("Third", "Desc", TaskStatus.PENDING);
+        third.setId(3L);
+        third.setTenantId("default");
+        when(taskRepository.findAllById(List.of(3L, 2L))).thenReturn(List.of(third));
+        when(taskRepository.findAllById(List.of(1L))).thenReturn(List.of(first));
+
+        TaskLookupResult result = taskService.getTasksByIds(List.of(3L, 2L, 1L, 3L));
+
+        assertEquals(List.of(third, first), result.getTasks());
+        assertEquals(List.of(2L), result.getMissing());
+    }
+
     @Test
     void getTasksByStatus_returnsEmptyListWhenNoTasks() {
-        when(taskRepository.findByStatus(TaskStatus.CANCELLED)).thenReturn(List.of());
+        when(taskRepository.findByTenantIdAndStatus("default", TaskStatus.CANCELLED)).thenReturn(List.of());
 
         List<Task> results = taskService.getTasksByStatus(TaskStatus.CANCELLED);
 
         assertTrue(results.isEmpty());
-        verify(taskRepository).findByStatus(TaskStatus.CANCELLED);
+        verify(taskRepository).findByTenantIdAndStatus("default", TaskStatus.CANCELLED);
     }
 }
@@ -0,0 +1,62 @@
+package com.example.taskmanagement.tenant;
+
+import com.example.taskmanagement.config.ShardingProperties;
+import com.example.taskmanagement.config.TenancyProperties;
+import com.example.taskmanagement.repository.TaskRepository;
+import com.example.taskmanagement.repository.TaskShards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class TenantQuotasTest {
+
+    @Test
+    void tryEnter_releasedSlotsCanBeTakenAgain() throws InterruptedException {
+        TenantQuotas quotas = quotas(Duration.ofMinutes(10));
+
+        TenantQuotas.Slot slot = quotas.tryEnter("acme");
+        assertNotNull(slot);
+        assertNull(quotas.tryEnter("acme"));
+
+        slot.release();
+        assertNotNull(quotas.tryEnter("acme"));
+    }
+
+    @Test
+    void tryEnter_keepsSemaphoresWithHeldPermitsPastTheIdleTimeout() throws InterruptedException {
+        TenantQuotas quotas = quotas(Duration.ofMillis(10));
+
+        TenantQuotas.Slot slot = quotas.tryEnter("acme");
+        Thread.sleep(50);
+
+        assertNull(quotas.tryEnter("acme"));
+        slot.release();
+        assertNotNull(quotas.tryEnter("acme"));
+    }
+
+    @Test
+    void tryEnter_keepsSemaphoresWithHeldPermitsWhenManyTenantsAreTracked() throws InterruptedException {
+        TenantQuotas quotas = quotas(Duration.ofMinutes(10));
+
+        TenantQuotas.Slot slot = quotas.tryEnter("acme");
+        for (int i = 0; i < 101_000; i++) {
+            quotas.tryEnter("tenant-" + i).release();
+        }
+
+        assertNull(quotas.tryEnter("acme"));
+        slot.release();
+    }
+
+    private static TenantQuotas quotas(Duration idleTimeout) {
+        TenancyProperties properties = new TenancyProperties();
+        properties.setMaxConcurrentRequests(1);
+        properties.setMaxWait(Duration.ZERO);
+        properties.setIdleTimeout(idleTimeout);
+        return new TenantQuotas(properties, mock(TaskRepository.class),
+                new TaskShards(new ShardingProperties(), null), new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.taskmanagement.transfer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    @Test
+    void next_readsPlainAndQuotedFields() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,\"b,c\",\"say \"\"hi\"\"\",\r\n1,2,3,4\n"));
+
+        assertEquals(List.of("a", "b,c", "say \"hi\"", ""), reader.next());
+        assertEquals(List.of("1", "2", "3", "4"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_keepsLineBreaksInsideQuotesAndTracksLines() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("\"first\nsecond\",x\nlast,y"));
+
+        assertEquals(1, reader.line());
+        assertEquals(List.of("first\nsecond", "x"), reader.next());
+        assertEquals(3, reader.line());
+        assertEquals(List.of("last", "y"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_rejectsUnterminatedQuote() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("ok\n\"never closed,x\n"));
+
+        assertEquals(List.of("ok"), reader.next());
+        assertThrows(IOException.class, reader::next);
+    }
+
+    @Test
+    void next_flagsRecordsLongerThanTheLimitAndCarriesOn() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("ab,cd\nabcdef,\"g\nh\"\nok\n"), 4);
+
+        assertEquals(List.of("ab", "cd"), reader.next());
+        assertFalse(reader.oversized());
+        reader.next();
+        assertTrue(reader.oversized());
+        assertEquals(4, reader.line());
+        assertEquals(List.of("ok"), reader.next());
+        assertFalse(reader.oversized());
+    }
+}